@@ -0,0 +1,81 @@
+package com.inqwise.opinion.common.benchmark;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.inqwise.opinion.common.AnyBaseEncoder;
+
+/**
+ * Throughput of {@link AnyBaseEncoder} for every built-in alphabet.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnyBaseEncoderBenchmark {
+
+	private static final int SIZE = 1024;
+	private static final int MASK = SIZE - 1;
+
+	@Param({ "BASE_10", "BASE_16", "BASE_36", "BASE_52", "BASE_62" })
+	public String alphabet;
+
+	private AnyBaseEncoder encoder;
+	private long[] values;
+	private String[] encoded;
+	private int next;
+
+	@Setup
+	public void setup() {
+		encoder = encoder(alphabet);
+		values = new long[SIZE];
+		encoded = new String[SIZE];
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < SIZE; i++) {
+			// database ids: mostly small, some spanning the full long range
+			values[i] = i % 8 == 0 ? random.nextLong(Long.MAX_VALUE) : random.nextLong(10_000_000L);
+			encoded[i] = encoder.encode(values[i]);
+		}
+	}
+
+	@Benchmark
+	public String encode() {
+		return encoder.encode(values[next++ & MASK]);
+	}
+
+	@Benchmark
+	public BigInteger decode() {
+		return encoder.decode(encoded[next++ & MASK]);
+	}
+
+	@Benchmark
+	public long decodeToLong() {
+		return encoder.decodeToLong(encoded[next++ & MASK]);
+	}
+
+	static AnyBaseEncoder encoder(String name) {
+		return switch (name) {
+			case "BASE_10" -> AnyBaseEncoder.BASE_10;
+			case "BASE_16" -> AnyBaseEncoder.BASE_16;
+			case "BASE_36" -> AnyBaseEncoder.BASE_36;
+			case "BASE_52" -> AnyBaseEncoder.BASE_52;
+			case "BASE_62" -> AnyBaseEncoder.BASE_62;
+			default -> throw new IllegalArgumentException("unknown alphabet: " + name);
+		};
+	}
+}
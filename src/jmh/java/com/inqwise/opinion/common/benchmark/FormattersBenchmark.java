@@ -0,0 +1,66 @@
+package com.inqwise.opinion.common.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.inqwise.opinion.common.Formatters;
+
+/**
+ * Throughput of {@link Formatters}, including the ISO fallback taken after a failed parse.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormattersBenchmark {
+
+	private final LocalDate date = LocalDate.of(2024, 3, 15);
+	private final LocalDateTime dateTime = LocalDateTime.of(2024, 3, 15, 13, 45, 30);
+	private final String formattedDate = Formatters.formatDate(date);
+	private final String formattedDateTime = Formatters.formatDateTime(dateTime);
+	private final String isoDate = date.toString();
+	private final String isoDateTime = dateTime.toString();
+
+	@Benchmark
+	public String formatDate() {
+		return Formatters.formatDate(date);
+	}
+
+	@Benchmark
+	public String formatDateTime() {
+		return Formatters.formatDateTime(dateTime);
+	}
+
+	@Benchmark
+	public LocalDate parseDate() {
+		return Formatters.parseDate(formattedDate);
+	}
+
+	@Benchmark
+	public LocalDateTime parseDateTime() {
+		return Formatters.parseDateTime(formattedDateTime);
+	}
+
+	@Benchmark
+	public LocalDate parseDate_isoFallback() {
+		return Formatters.parseDate(isoDate);
+	}
+
+	@Benchmark
+	public LocalDateTime parseDateTime_isoFallback() {
+		return Formatters.parseDateTime(isoDateTime);
+	}
+}
@@ -0,0 +1,98 @@
+package com.inqwise.opinion.common.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.inqwise.opinion.common.Uid;
+import com.inqwise.opinion.common.UidFormat;
+import com.inqwise.opinion.common.UidPrefixGenerator;
+
+/**
+ * Throughput of {@link Uid} token serialization and parsing at 1, 4 and all available threads.
+ *
+ * <p>{@link Uid#toUidToken()} is memoized, so the {@code toUidToken} benchmarks encode through
+ * {@link UidFormat#DEFAULT} on every call; {@code toUidToken_cached} measures the memoized path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UidBenchmark {
+
+	private static final int SIZE = 1024;
+	private static final int MASK = SIZE - 1;
+
+	private Uid[] uids;
+	private String[] tokens;
+	private int next;
+
+	@Setup
+	public void setup() {
+		uids = new Uid[SIZE];
+		tokens = new String[SIZE];
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < SIZE; i++) {
+			uids[i] = Uid.builder()
+				.withId(random.nextLong(100_000_000L))
+				.withPrefix(UidPrefixGenerator.SIZE_10.generate())
+				.build();
+			tokens[i] = uids[i].toUidToken();
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public String toUidToken() {
+		return UidFormat.DEFAULT.format(uids[next++ & MASK]);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String toUidToken_4Threads() {
+		return UidFormat.DEFAULT.format(uids[next++ & MASK]);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public String toUidToken_maxThreads() {
+		return UidFormat.DEFAULT.format(uids[next++ & MASK]);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public String toUidToken_cached() {
+		return uids[next++ & MASK].toUidToken();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Uid parse() {
+		return Uid.parse(tokens[next++ & MASK]);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Uid parse_4Threads() {
+		return Uid.parse(tokens[next++ & MASK]);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public Uid parse_maxThreads() {
+		return Uid.parse(tokens[next++ & MASK]);
+	}
+}
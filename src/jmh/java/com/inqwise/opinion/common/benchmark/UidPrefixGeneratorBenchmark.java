@@ -0,0 +1,70 @@
+package com.inqwise.opinion.common.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.inqwise.opinion.common.UidPrefixGenerator;
+
+/**
+ * Throughput of {@link UidPrefixGenerator#generate()} at 1, 4 and all available threads, per
+ * {@link UidPrefixGenerator.RandomSource}. The generator is shared by all benchmark threads, as it is in production.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UidPrefixGeneratorBenchmark {
+
+	@Param({ "SIZE_4", "SIZE_10" })
+	public String size;
+
+	@Param({ "shared", "threadLocal", "threadLocalDrbg" })
+	public String randomSource;
+
+	private UidPrefixGenerator generator;
+
+	@Setup
+	public void setup() {
+		UidPrefixGenerator.RandomSource source = switch (randomSource) {
+			case "threadLocal" -> UidPrefixGenerator.RandomSource.threadLocal();
+			case "threadLocalDrbg" -> UidPrefixGenerator.RandomSource.threadLocalDrbg(10_000);
+			default -> UidPrefixGenerator.RandomSource.shared();
+		};
+		generator = UidPrefixGenerator.builder()
+				.size("SIZE_4".equals(size) ? 4 : 10)
+				.randomSource(source)
+				.build();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public String generate() {
+		return generator.generate();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public String generate_4Threads() {
+		return generator.generate();
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public String generate_maxThreads() {
+		return generator.generate();
+	}
+}
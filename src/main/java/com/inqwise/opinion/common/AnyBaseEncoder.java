@@ -1,81 +1,489 @@
 package com.inqwise.opinion.common;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import com.google.common.base.Preconditions;
 
+import io.vertx.core.buffer.Buffer;
+
 /**
  * Base-N encoder/decoder for non-negative numbers.
  */
 public final class AnyBaseEncoder {
 
 	public static final AnyBaseEncoder BASE_10 =
-		builder().alphabet("0123456789").build();
+		builder().alphabet("0123456789").digitPairs(true).build();
 	public static final AnyBaseEncoder BASE_16 =
-		builder().alphabet("0123456789abcdef").build();
+		builder().alphabet("0123456789abcdef").digitPairs(true).build();
 	public static final AnyBaseEncoder BASE_36 =
-		builder().alphabet("0123456789abcdefghijklmnopqrstuvwxyz").build();
+		builder().alphabet("0123456789abcdefghijklmnopqrstuvwxyz").digitPairs(true).build();
 	public static final AnyBaseEncoder BASE_52 =
 		builder().alphabet("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ").build();
 	public static final AnyBaseEncoder BASE_62 =
 		builder().alphabet("0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ").build();
 
+	/**
+	 * Batches up to this size are always processed on the calling thread.
+	 */
+	private static final int BATCH_SPLIT_SIZE = 8192;
+
+	/**
+	 * Values longer than this are split recursively before being encoded chunk by chunk.
+	 */
+	private static final int SPLIT_THRESHOLD_BITS = 1280;
+
+	/**
+	 * Largest base for digit-pair tables; 64 * 64 pairs keep the encode table at 16 KB.
+	 */
+	private static final int MAX_PAIR_BASE = 64;
+
+	/**
+	 * Largest number of entries in the two-character decode table (16 KB of shorts).
+	 */
+	private static final int MAX_PAIR_INDEX_SIZE = 8192;
+
 	private final char[] alphabet;
+	private final byte[] alphabetBytes;
 	private final int base;
 	private final int[] indexByChar;
+	private final byte[] indexByByte;
+	private final int maxLongDigits;
+	private final long maxBeforeMultiply;
+	private final long[] powers;
+	// digit width in bits when the base is a power of two, otherwise 0
+	private final int shift;
+	private final int mask;
+	private final boolean fixedWidth;
+	// largest power of the base that fits in a long, and its digit count
+	private final BigInteger longChunk;
+	private final int longChunkDigits;
+	// largest power of the base that fits in an int, and its digit count
+	private final long intChunk;
+	private final int intChunkDigits;
+	private final double bitsPerDigit;
+	// two-digit tables, null unless enabled on the builder
+	private final char[] digitPairs;
+	private final short[] indexByPair;
+	private final long pairBase;
+	private final long maxBeforePairMultiply;
+	private final char pairMinChar;
+	private final int pairSpan;
 
 	private AnyBaseEncoder(Builder builder) {
 		this.alphabet = builder.alphabet.toCharArray();
 		this.base = alphabet.length;
 		this.indexByChar = buildIndexByChar(alphabet);
+		this.alphabetBytes = builder.alphabet.getBytes(StandardCharsets.US_ASCII);
+		this.indexByByte = buildIndexByByte(alphabet);
+		this.maxLongDigits = countDigits(Long.MAX_VALUE, base);
+		this.maxBeforeMultiply = Long.MAX_VALUE / base;
+		this.powers = buildPowers(base, maxLongDigits);
+		this.shift = Integer.bitCount(base) == 1 ? Integer.numberOfTrailingZeros(base) : 0;
+		this.mask = base - 1;
+		this.fixedWidth = builder.fixedWidth;
+		this.longChunkDigits = maxLongDigits - 1;
+		this.longChunk = BigInteger.valueOf(powers[longChunkDigits]);
+		this.intChunkDigits = countDigits(Integer.MAX_VALUE, base) - 1;
+		this.intChunk = powers[intChunkDigits];
+		this.bitsPerDigit = Math.log(base) / Math.log(2);
+		this.pairBase = (long) base * base;
+		this.maxBeforePairMultiply = Long.MAX_VALUE / pairBase;
+		this.digitPairs = builder.digitPairs ? buildDigitPairs(alphabet) : null;
+		char minChar = alphabet[0];
+		char maxChar = alphabet[0];
+		for (char c : alphabet) {
+			minChar = (char) Math.min(minChar, c);
+			maxChar = (char) Math.max(maxChar, c);
+		}
+		this.pairMinChar = minChar;
+		this.pairSpan = maxChar - minChar + 1;
+		this.indexByPair = builder.digitPairs && pairSpan * pairSpan <= MAX_PAIR_INDEX_SIZE
+			? buildIndexByPair(alphabet, minChar, pairSpan)
+			: null;
 	}
 
 	public String encode(long value) {
-		return encode(BigInteger.valueOf(value));
+		Preconditions.checkArgument(value >= 0, "value must be non-negative");
+
+		char[] buf = new char[maxLongDigits];
+		int pos = writeDigits(value, buf, buf.length);
+		return new String(buf, pos, buf.length - pos);
+	}
+
+	/**
+	 * Appends the encoded value to {@code sb}.
+	 *
+	 * @return number of characters appended
+	 */
+	public int encodeTo(long value, StringBuilder sb) {
+		Objects.requireNonNull(sb, "sb");
+		Preconditions.checkArgument(value >= 0, "value must be non-negative");
+
+		int count = digitCount(value);
+		long current = value;
+		for (int i = count - 1; i >= 0; i--) {
+			long digit = leadingDigit(current, i);
+			sb.append(alphabet[(int) digit]);
+			current -= digit * powers[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Appends the encoded value to {@code out}.
+	 *
+	 * @return number of characters appended
+	 */
+	public int encodeTo(long value, Appendable out) throws IOException {
+		Objects.requireNonNull(out, "out");
+		Preconditions.checkArgument(value >= 0, "value must be non-negative");
+
+		int count = digitCount(value);
+		long current = value;
+		for (int i = count - 1; i >= 0; i--) {
+			long digit = leadingDigit(current, i);
+			out.append(alphabet[(int) digit]);
+			current -= digit * powers[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Writes the encoded value into {@code dst} starting at {@code offset}.
+	 *
+	 * @return number of characters written
+	 * @throws IndexOutOfBoundsException if the encoded value does not fit in {@code dst}
+	 */
+	public int encodeTo(long value, char[] dst, int offset) {
+		Objects.requireNonNull(dst, "dst");
+		Preconditions.checkArgument(value >= 0, "value must be non-negative");
+
+		int count = digitCount(value);
+		Objects.checkFromIndexSize(offset, count, dst.length);
+		writeDigits(value, dst, offset + count);
+		return count;
+	}
+
+	/**
+	 * Writes the encoded value as ASCII bytes into {@code dst} starting at {@code offset}.
+	 *
+	 * @return number of bytes written
+	 * @throws IndexOutOfBoundsException if the encoded value does not fit in {@code dst}
+	 */
+	public int encodeTo(long value, byte[] dst, int offset) {
+		Objects.requireNonNull(dst, "dst");
+		Preconditions.checkArgument(value >= 0, "value must be non-negative");
+
+		int count = digitCount(value);
+		Objects.checkFromIndexSize(offset, count, dst.length);
+		int pos = offset + count;
+		long current = value;
+		if (shift > 0) {
+			do {
+				dst[--pos] = alphabetBytes[(int) current & mask];
+				current >>>= shift;
+			} while (current > 0);
+		} else {
+			do {
+				long quotient = current / base;
+				dst[--pos] = alphabetBytes[(int) (current - quotient * base)];
+				current = quotient;
+			} while (current > 0);
+		}
+		while (pos > offset) {
+			dst[--pos] = alphabetBytes[0];
+		}
+		return count;
+	}
+
+	/**
+	 * Appends the encoded value as ASCII bytes to {@code buffer}, skipping any charset conversion.
+	 *
+	 * @return number of bytes appended
+	 */
+	public int encodeTo(long value, Buffer buffer) {
+		Objects.requireNonNull(buffer, "buffer");
+		Preconditions.checkArgument(value >= 0, "value must be non-negative");
+
+		int count = digitCount(value);
+		long current = value;
+		for (int i = count - 1; i >= 0; i--) {
+			long digit = leadingDigit(current, i);
+			buffer.appendByte(alphabetBytes[(int) digit]);
+			current -= digit * powers[i];
+		}
+		return count;
 	}
 
 	public String encode(BigInteger value) {
 		Objects.requireNonNull(value, "value");
 		Preconditions.checkArgument(value.signum() >= 0, "value must be non-negative");
+		if (fixedWidth) {
+			Preconditions.checkArgument(value.bitLength() < Long.SIZE, "value exceeds fixed width of %s characters", maxLongDigits);
+			return encode(value.longValue());
+		}
 
 		if (BigInteger.ZERO.equals(value)) {
 			return String.valueOf(alphabet[0]);
 		}
+		if (shift > 0) {
+			return encodeBits(value.toByteArray());
+		}
 
-		StringBuilder sb = new StringBuilder();
-		BigInteger current = value;
-		BigInteger baseBig = BigInteger.valueOf(base);
+		char[] buf = new char[maxDigits(value.bitLength())];
+		int pos = writeBigDigits(value, buf, buf.length, 0);
+		return new String(buf, pos, buf.length - pos);
+	}
 
-		while (current.signum() > 0) {
-			BigInteger[] divRem = current.divideAndRemainder(baseBig);
-			sb.append(alphabet[divRem[1].intValue()]);
-			current = divRem[0];
+	/**
+	 * Encodes an unsigned big-endian magnitude without creating a BigInteger.
+	 */
+	public String encode(byte[] magnitude) {
+		Objects.requireNonNull(magnitude, "magnitude");
+		if (fixedWidth) {
+			return encode(new BigInteger(1, magnitude));
 		}
+		if (shift > 0) {
+			return magnitude.length == 0 ? String.valueOf(alphabet[0]) : encodeBits(magnitude);
+		}
+		return encodeWords(toWords(magnitude));
+	}
 
-		return sb.reverse().toString();
+	/**
+	 * Encodes the 128 bits of {@code value} as an unsigned number.
+	 */
+	public String encode(UUID value) {
+		Objects.requireNonNull(value, "value");
+		byte[] magnitude = new byte[16];
+		long msb = value.getMostSignificantBits();
+		long lsb = value.getLeastSignificantBits();
+		for (int i = 7; i >= 0; i--) {
+			magnitude[i] = (byte) msb;
+			magnitude[i + 8] = (byte) lsb;
+			msb >>>= Byte.SIZE;
+			lsb >>>= Byte.SIZE;
+		}
+		return encode(magnitude);
 	}
 
 	public BigInteger decode(String value) {
 		Objects.requireNonNull(value, "value");
 		Preconditions.checkArgument(!value.isEmpty(), "value must not be empty");
+		checkWidth(value.length());
+		if (shift > 0) {
+			return decodeBits(value);
+		}
 
 		BigInteger result = BigInteger.ZERO;
-		BigInteger baseBig = BigInteger.valueOf(base);
+		long chunk = 0;
+		int chunkLength = 0;
 
 		for (int i = 0; i < value.length(); i++) {
 			char c = value.charAt(i);
 			int index = indexOf(c);
 			Preconditions.checkArgument(index >= 0, "invalid character at %s: %s", i, c);
-			result = result.multiply(baseBig).add(BigInteger.valueOf(index));
+			chunk = chunk * base + index;
+			if (++chunkLength == longChunkDigits) {
+				result = result.multiply(longChunk).add(BigInteger.valueOf(chunk));
+				chunk = 0;
+				chunkLength = 0;
+			}
+		}
+		if (chunkLength > 0) {
+			result = result.multiply(BigInteger.valueOf(powers[chunkLength])).add(BigInteger.valueOf(chunk));
 		}
 
 		return result;
 	}
 
 	public long decodeToLong(String value) {
-		return decode(value).longValueExact();
+		Objects.requireNonNull(value, "value");
+		return decodeToLong(value, 0, value.length());
+	}
+
+	/**
+	 * Decodes the characters of {@code value} in the range [{@code from}, {@code to}).
+	 * Reported character positions are indexes into {@code value}.
+	 */
+	public long decodeToLong(CharSequence value, int from, int to) {
+		Objects.requireNonNull(value, "value");
+		Objects.checkFromToIndex(from, to, value.length());
+		Preconditions.checkArgument(from < to, "value must not be empty");
+		checkWidth(to - from);
+
+		long result = tryDecodeToLong(value, from, to);
+		if (result >= 0) {
+			return result;
+		}
+
+		// rejected: decode again one character at a time to report why
+		result = 0;
+		for (int i = from; i < to; i++) {
+			char c = value.charAt(i);
+			int index = indexOf(c);
+			Preconditions.checkArgument(index >= 0, "invalid character at %s: %s", i, c);
+			if (result >= 0) {
+				result = accumulate(result, index);
+			}
+		}
+		return checkLongRange(result);
+	}
+
+	/**
+	 * Decodes the characters of {@code value} in the range [{@code from}, {@code to}) without
+	 * throwing for malformed input.
+	 *
+	 * @return the decoded value, or {@code -1} if the range is empty, contains a character outside
+	 *         the alphabet, does not fit in a long, or does not have the fixed width
+	 */
+	public long tryDecodeToLong(CharSequence value, int from, int to) {
+		Objects.requireNonNull(value, "value");
+		Objects.checkFromToIndex(from, to, value.length());
+		if (from == to || (fixedWidth && to - from != maxLongDigits)) {
+			return -1;
+		}
+
+		long result = 0;
+		int i = from;
+		if (indexByPair != null) {
+			for (; i + 1 < to; i += 2) {
+				int pair = indexOfPair(value.charAt(i), value.charAt(i + 1));
+				if (pair < 0) {
+					return -1;
+				}
+				result = accumulatePair(result, pair);
+				if (result < 0) {
+					return -1;
+				}
+			}
+		}
+		for (; i < to; i++) {
+			int index = indexOf(value.charAt(i));
+			if (index < 0) {
+				return -1;
+			}
+			result = accumulate(result, index);
+			if (result < 0) {
+				return -1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Decodes the ASCII bytes of {@code src} in the range [{@code from}, {@code to}).
+	 */
+	public long decodeToLong(byte[] src, int from, int to) {
+		Objects.requireNonNull(src, "src");
+		Objects.checkFromToIndex(from, to, src.length);
+		Preconditions.checkArgument(from < to, "value must not be empty");
+		checkWidth(to - from);
+
+		long result = 0;
+		for (int i = from; i < to; i++) {
+			byte b = src[i];
+			int index = indexOf(b);
+			Preconditions.checkArgument(index >= 0, "invalid character at %s: %s", i, (char) (b & 0xff));
+			if (result >= 0) {
+				result = accumulate(result, index);
+			}
+		}
+
+		return checkLongRange(result);
+	}
+
+	/**
+	 * Decodes the ASCII bytes of {@code src} in the range [{@code from}, {@code to}).
+	 */
+	public long decodeToLong(Buffer src, int from, int to) {
+		Objects.requireNonNull(src, "src");
+		Objects.checkFromToIndex(from, to, src.length());
+		Preconditions.checkArgument(from < to, "value must not be empty");
+		checkWidth(to - from);
+
+		long result = 0;
+		for (int i = from; i < to; i++) {
+			byte b = src.getByte(i);
+			int index = indexOf(b);
+			Preconditions.checkArgument(index >= 0, "invalid character at %s: %s", i, (char) (b & 0xff));
+			if (result >= 0) {
+				result = accumulate(result, index);
+			}
+		}
+
+		return checkLongRange(result);
+	}
+
+	/**
+	 * Encodes every value, reusing a single scratch buffer for the whole batch.
+	 */
+	public String[] encodeAll(long[] values) {
+		Objects.requireNonNull(values, "values");
+		String[] result = new String[values.length];
+		encodeRange(values, result, 0, values.length);
+		return result;
+	}
+
+	/**
+	 * Encodes every value, splitting batches larger than {@value #BATCH_SPLIT_SIZE} across {@code pool}.
+	 */
+	public String[] encodeAll(long[] values, ForkJoinPool pool) {
+		Objects.requireNonNull(values, "values");
+		Objects.requireNonNull(pool, "pool");
+		String[] result = new String[values.length];
+		runBatch(pool, values.length, (from, to) -> encodeRange(values, result, from, to));
+		return result;
+	}
+
+	/**
+	 * Encodes every value back to back into {@code dst} starting at {@code offset}.
+	 * The encoding of {@code values[i]} ends (exclusive) at {@code ends[i]} and starts at
+	 * {@code ends[i - 1]}, or at {@code offset} for the first value.
+	 * {@code values.length * getMaxLongLength()} characters are always enough.
+	 *
+	 * @return total number of characters written
+	 * @throws IndexOutOfBoundsException if the encoded values do not fit in {@code dst}
+	 */
+	public int encodeAll(long[] values, char[] dst, int offset, int[] ends) {
+		Objects.requireNonNull(values, "values");
+		Objects.requireNonNull(dst, "dst");
+		Objects.requireNonNull(ends, "ends");
+		Preconditions.checkArgument(ends.length >= values.length, "ends must have room for %s values", values.length);
+
+		int pos = offset;
+		for (int i = 0; i < values.length; i++) {
+			pos += encodeTo(values[i], dst, pos);
+			ends[i] = pos;
+		}
+		return pos - offset;
+	}
+
+	/**
+	 * Decodes every value to a long.
+	 */
+	public long[] decodeAll(CharSequence[] values) {
+		Objects.requireNonNull(values, "values");
+		long[] result = new long[values.length];
+		decodeRange(values, result, 0, values.length);
+		return result;
+	}
+
+	/**
+	 * Decodes every value to a long, splitting batches larger than {@value #BATCH_SPLIT_SIZE} across {@code pool}.
+	 */
+	public long[] decodeAll(CharSequence[] values, ForkJoinPool pool) {
+		Objects.requireNonNull(values, "values");
+		Objects.requireNonNull(pool, "pool");
+		long[] result = new long[values.length];
+		runBatch(pool, values.length, (from, to) -> decodeRange(values, result, from, to));
+		return result;
 	}
 
 	public String getAlphabet() {
@@ -86,10 +494,297 @@ public final class AnyBaseEncoder {
 		return base;
 	}
 
+	/**
+	 * Returns the maximum number of characters produced when encoding a {@code long}.
+	 */
+	public int getMaxLongLength() {
+		return maxLongDigits;
+	}
+
+	/**
+	 * Returns whether every encoding is left-padded to {@link #getMaxLongLength()} characters.
+	 */
+	public boolean isFixedWidth() {
+		return fixedWidth;
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
 
+	/**
+	 * Writes the digits of a non-negative value right-to-left, ending just before {@code end}.
+	 *
+	 * @return index of the most significant digit written
+	 */
+	private int writeDigits(long value, char[] buf, int end) {
+		int pos = end;
+		long current = value;
+		if (digitPairs != null) {
+			while (current >= pairBase) {
+				long quotient = shift > 0 ? current >>> (shift << 1) : current / pairBase;
+				int pair = (int) (current - quotient * pairBase) << 1;
+				buf[--pos] = digitPairs[pair + 1];
+				buf[--pos] = digitPairs[pair];
+				current = quotient;
+			}
+		}
+		if (shift > 0) {
+			do {
+				buf[--pos] = alphabet[(int) current & mask];
+				current >>>= shift;
+			} while (current > 0);
+		} else {
+			do {
+				long quotient = current / base;
+				buf[--pos] = alphabet[(int) (current - quotient * base)];
+				current = quotient;
+			} while (current > 0);
+		}
+		if (fixedWidth) {
+			int start = end - maxLongDigits;
+			while (pos > start) {
+				buf[--pos] = alphabet[0];
+			}
+		}
+		return pos;
+	}
+
+	/**
+	 * Writes the digits of a big value right-to-left, ending just before {@code end}.
+	 * Values above {@value #SPLIT_THRESHOLD_BITS} bits are split in two around a power of the base,
+	 * the rest are emitted one long-sized chunk per division.
+	 *
+	 * @param padDigits minimum number of digits to write, zero-padded on the left
+	 * @return index of the most significant digit written
+	 */
+	private int writeBigDigits(BigInteger value, char[] buf, int end, int padDigits) {
+		int pos;
+		if (value.bitLength() > SPLIT_THRESHOLD_BITS) {
+			int lowChunks = Math.max(1, maxDigits(value.bitLength()) / longChunkDigits / 2);
+			int lowDigits = lowChunks * longChunkDigits;
+			BigInteger[] divRem = value.divideAndRemainder(longChunk.pow(lowChunks));
+			writeBigDigits(divRem[1], buf, end, lowDigits);
+			pos = writeBigDigits(divRem[0], buf, end - lowDigits, 0);
+		} else {
+			pos = end;
+			BigInteger current = value;
+			while (current.bitLength() >= Long.SIZE) {
+				BigInteger[] divRem = current.divideAndRemainder(longChunk);
+				pos = padDigits(buf, writeDigits(divRem[1].longValue(), buf, pos), pos - longChunkDigits);
+				current = divRem[0];
+			}
+			pos = writeDigits(current.longValue(), buf, pos);
+		}
+		return padDigits(buf, pos, end - padDigits);
+	}
+
+	/**
+	 * Encodes big-endian 32-bit words by repeated short division with an int-sized power of the base.
+	 * The words are consumed in the process.
+	 */
+	private String encodeWords(int[] words) {
+		int first = 0;
+		while (first < words.length && words[first] == 0) {
+			first++;
+		}
+		if (first == words.length) {
+			return String.valueOf(alphabet[0]);
+		}
+
+		char[] buf = new char[maxDigits((words.length - first) * Integer.SIZE)];
+		int pos = buf.length;
+		while (first < words.length) {
+			long remainder = 0;
+			for (int i = first; i < words.length; i++) {
+				// remainder < intChunk <= 2^31, so the dividend stays below 2^63
+				long dividend = (remainder << Integer.SIZE) | (words[i] & 0xffffffffL);
+				long quotient = dividend / intChunk;
+				words[i] = (int) quotient;
+				remainder = dividend - quotient * intChunk;
+			}
+			while (first < words.length && words[first] == 0) {
+				first++;
+			}
+			int chunkEnd = pos;
+			pos = writeDigits(remainder, buf, pos);
+			if (first < words.length) {
+				pos = padDigits(buf, pos, chunkEnd - intChunkDigits);
+			}
+		}
+		return new String(buf, pos, buf.length - pos);
+	}
+
+	private int padDigits(char[] buf, int pos, int start) {
+		while (pos > start) {
+			buf[--pos] = alphabet[0];
+		}
+		return pos;
+	}
+
+	private int maxDigits(int bitLength) {
+		return (int) (bitLength / bitsPerDigit) + 2;
+	}
+
+	private static int[] toWords(byte[] magnitude) {
+		int[] words = new int[(magnitude.length + 3) / 4];
+		for (int i = magnitude.length - 1, bit = 0, w = words.length - 1; i >= 0; i--) {
+			words[w] |= (magnitude[i] & 0xff) << bit;
+			bit += Byte.SIZE;
+			if (bit == Integer.SIZE) {
+				bit = 0;
+				w--;
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * Returns the digit at {@code position} of a value whose higher digits have already been removed.
+	 */
+	private long leadingDigit(long current, int position) {
+		return shift > 0 ? current >>> (position * shift) : current / powers[position];
+	}
+
+	/**
+	 * Encodes an unsigned big-endian magnitude by walking its bits, for power-of-two bases only.
+	 */
+	private String encodeBits(byte[] magnitude) {
+		char[] buf = new char[(magnitude.length * Byte.SIZE + shift - 1) / shift];
+		int pos = buf.length;
+		int acc = 0;
+		int accBits = 0;
+		for (int i = magnitude.length - 1; i >= 0; i--) {
+			acc |= (magnitude[i] & 0xff) << accBits;
+			accBits += Byte.SIZE;
+			while (accBits >= shift) {
+				buf[--pos] = alphabet[acc & mask];
+				acc >>>= shift;
+				accBits -= shift;
+			}
+		}
+		if (accBits > 0) {
+			buf[--pos] = alphabet[acc & mask];
+		}
+
+		int last = buf.length - 1;
+		while (pos < last && buf[pos] == alphabet[0]) {
+			pos++;
+		}
+		return new String(buf, pos, buf.length - pos);
+	}
+
+	/**
+	 * Decodes by packing digits into a big-endian byte array, for power-of-two bases only.
+	 */
+	private BigInteger decodeBits(String value) {
+		int totalBits = value.length() * shift;
+		byte[] magnitude = new byte[(totalBits + Byte.SIZE - 1) / Byte.SIZE];
+		int pos = 0;
+		int acc = 0;
+		// left-pad with zero bits so the last digit ends on a byte boundary
+		int accBits = magnitude.length * Byte.SIZE - totalBits;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			int index = indexOf(c);
+			Preconditions.checkArgument(index >= 0, "invalid character at %s: %s", i, c);
+			acc = (acc << shift) | index;
+			accBits += shift;
+			if (accBits >= Byte.SIZE) {
+				accBits -= Byte.SIZE;
+				magnitude[pos++] = (byte) (acc >>> accBits);
+				acc &= (1 << accBits) - 1;
+			}
+		}
+		return new BigInteger(1, magnitude);
+	}
+
+	/**
+	 * Appends one digit to a partially decoded value.
+	 *
+	 * @return the new value, or a negative number once the value no longer fits in a long
+	 */
+	private long accumulate(long result, int index) {
+		if (result > maxBeforeMultiply) {
+			return -1;
+		}
+		if (shift > 0) {
+			return (result << shift) | index;
+		}
+		// result * base <= Long.MAX_VALUE, so adding a digit can only wrap to a negative value
+		return result * base + index;
+	}
+
+	private void checkWidth(int length) {
+		if (fixedWidth) {
+			Preconditions.checkArgument(length == maxLongDigits, "value must have %s characters", maxLongDigits);
+		}
+	}
+
+	/**
+	 * Appends two digits to a partially decoded value, see {@link #accumulate(long, int)}.
+	 */
+	private long accumulatePair(long result, int pair) {
+		if (result > maxBeforePairMultiply) {
+			return -1;
+		}
+		return result * pairBase + pair;
+	}
+
+	private static long checkLongRange(long result) {
+		if (result < 0) {
+			throw new ArithmeticException("value out of long range");
+		}
+		return result;
+	}
+
+	private void encodeRange(long[] values, String[] result, int from, int to) {
+		char[] scratch = new char[maxLongDigits];
+		for (int i = from; i < to; i++) {
+			long value = values[i];
+			Preconditions.checkArgument(value >= 0, "value must be non-negative, found at %s: %s", i, value);
+			int pos = writeDigits(value, scratch, scratch.length);
+			result[i] = new String(scratch, pos, scratch.length - pos);
+		}
+	}
+
+	private void decodeRange(CharSequence[] values, long[] result, int from, int to) {
+		for (int i = from; i < to; i++) {
+			CharSequence value = values[i];
+			if (null == value) {
+				throw new NullPointerException("value is null, found at " + i);
+			}
+			try {
+				result[i] = decodeToLong(value, 0, value.length());
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException(e.getMessage() + ", found at " + i + ": " + value, e);
+			} catch (ArithmeticException e) {
+				ArithmeticException rethrown = new ArithmeticException(e.getMessage() + ", found at " + i + ": " + value);
+				rethrown.initCause(e);
+				throw rethrown;
+			}
+		}
+	}
+
+	private static void runBatch(ForkJoinPool pool, int size, RangeAction action) {
+		if (size <= BATCH_SPLIT_SIZE) {
+			action.run(0, size);
+		} else {
+			pool.invoke(new BatchTask(action, 0, size));
+		}
+	}
+
+	private int digitCount(long value) {
+		if (fixedWidth) {
+			return maxLongDigits;
+		}
+		int count = 1;
+		while (count < maxLongDigits && value >= powers[count]) {
+			count++;
+		}
+		return count;
+	}
+
 	private int indexOf(char c) {
 		if (c >= indexByChar.length) {
 			return -1;
@@ -97,6 +792,40 @@ public final class AnyBaseEncoder {
 		return indexByChar[c];
 	}
 
+	private int indexOf(byte b) {
+		// negative bytes are outside ASCII and never part of the alphabet
+		if (b < 0) {
+			return -1;
+		}
+		return indexByByte[b];
+	}
+
+	private static int countDigits(long value, int base) {
+		int digits = 1;
+		for (long current = value / base; current > 0; current /= base) {
+			digits++;
+		}
+		return digits;
+	}
+
+	private int indexOfPair(char first, char second) {
+		int a = first - pairMinChar;
+		int b = second - pairMinChar;
+		if (a < 0 || b < 0 || a >= pairSpan || b >= pairSpan) {
+			return -1;
+		}
+		return indexByPair[a * pairSpan + b];
+	}
+
+	private static long[] buildPowers(int base, int count) {
+		long[] powers = new long[count];
+		powers[0] = 1;
+		for (int i = 1; i < count; i++) {
+			powers[i] = powers[i - 1] * base;
+		}
+		return powers;
+	}
+
 	private static int[] buildIndexByChar(char[] alphabet) {
 		int maxChar = 0;
 		for (char c : alphabet) {
@@ -112,8 +841,69 @@ public final class AnyBaseEncoder {
 		return index;
 	}
 
+	private static byte[] buildIndexByByte(char[] alphabet) {
+		byte[] index = new byte[128];
+		Arrays.fill(index, (byte) -1);
+		for (int i = 0; i < alphabet.length; i++) {
+			index[alphabet[i]] = (byte) i;
+		}
+		return index;
+	}
+
+	private static char[] buildDigitPairs(char[] alphabet) {
+		int base = alphabet.length;
+		char[] pairs = new char[base * base * 2];
+		for (int i = 0; i < base * base; i++) {
+			pairs[i * 2] = alphabet[i / base];
+			pairs[i * 2 + 1] = alphabet[i % base];
+		}
+		return pairs;
+	}
+
+	private static short[] buildIndexByPair(char[] alphabet, char minChar, int span) {
+		short[] index = new short[span * span];
+		Arrays.fill(index, (short) -1);
+		for (int i = 0; i < alphabet.length; i++) {
+			for (int j = 0; j < alphabet.length; j++) {
+				index[(alphabet[i] - minChar) * span + (alphabet[j] - minChar)] = (short) (i * alphabet.length + j);
+			}
+		}
+		return index;
+	}
+
+	@FunctionalInterface
+	private interface RangeAction {
+		void run(int from, int to);
+	}
+
+	private static final class BatchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final transient RangeAction action;
+		private final int from;
+		private final int to;
+
+		private BatchTask(RangeAction action, int from, int to) {
+			this.action = action;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= BATCH_SPLIT_SIZE) {
+				action.run(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new BatchTask(action, from, middle), new BatchTask(action, middle, to));
+			}
+		}
+	}
+
 	public static final class Builder {
 		private String alphabet;
+		private boolean fixedWidth;
+		private boolean digitPairs;
 
 		private Builder() {
 		}
@@ -126,11 +916,54 @@ public final class AnyBaseEncoder {
 			return this;
 		}
 
+		/**
+		 * Left-pads every encoding with the zero digit to the length of the largest {@code long},
+		 * so that encoded values sort in the same order as the numbers themselves.
+		 * Only values in {@code long} range can be encoded, and decoding requires the full width.
+		 * The alphabet must be in ascending ASCII order.
+		 */
+		public Builder fixedWidth(boolean fixedWidth) {
+			this.fixedWidth = fixedWidth;
+			return this;
+		}
+
+		/**
+		 * Precomputes two-digit lookup tables, so that each division while encoding a {@code long}
+		 * emits two characters and decoding consumes two characters per lookup, in the style of
+		 * {@link Long#toString(long)}. Intended for small alphabets; the base must not exceed 64
+		 * so the tables stay cache-resident.
+		 */
+		public Builder digitPairs(boolean digitPairs) {
+			this.digitPairs = digitPairs;
+			return this;
+		}
+
 		public AnyBaseEncoder build() {
 			Objects.requireNonNull(alphabet, "alphabet");
+			if (digitPairs) {
+				Preconditions.checkArgument(
+					alphabet.length() <= MAX_PAIR_BASE,
+					"digit pairs require a base of at most %s",
+					MAX_PAIR_BASE
+				);
+			}
+			if (fixedWidth) {
+				validateAscending(alphabet);
+			}
 			return new AnyBaseEncoder(this);
 		}
 
+		private static void validateAscending(String alphabet) {
+			for (int i = 1; i < alphabet.length(); i++) {
+				Preconditions.checkArgument(
+					alphabet.charAt(i - 1) < alphabet.charAt(i),
+					"fixed width alphabet must be in ascending order, invalid char at %s: %s",
+					i,
+					alphabet.charAt(i)
+				);
+			}
+		}
+
 		private static void validateUniqueAscii(String alphabet) {
 			boolean[] seen = new boolean[128];
 			for (int i = 0; i < alphabet.length(); i++) {
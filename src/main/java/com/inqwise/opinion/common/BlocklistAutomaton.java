@@ -0,0 +1,153 @@
+package com.inqwise.opinion.common;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Aho-Corasick automaton over a set of blocked words, compiled to a transition table so that text can be
+ * checked one character at a time: {@link #step(int, char)} moves to the next state, and a state is
+ * {@link #isBlocked(int) blocked} when the text read so far ends with a blocked word.
+ *
+ * <p>Words are matched case-insensitively and must be ASCII. Characters that occur in no word share one
+ * column of the table and always lead back to the start state. Instances are immutable and thread-safe.
+ */
+final class BlocklistAutomaton {
+	static final int START = 0;
+
+	// column of every ASCII character, 0 for characters that occur in no word
+	private final byte[] columns = new byte[128];
+	private final int width;
+	private final int[] transitions;
+	private final boolean[] blocked;
+
+	private BlocklistAutomaton(Collection<String> words) {
+		int symbols = 1;
+		for (String word : words) {
+			Objects.requireNonNull(word, "word");
+			Preconditions.checkArgument(!word.isEmpty(), "blocked words must not be empty");
+			String lower = word.toLowerCase(Locale.ROOT);
+			for (int i = 0; i < lower.length(); i++) {
+				char c = lower.charAt(i);
+				Preconditions.checkArgument(c < 128, "blocked word '%s' is not ASCII", word);
+				if (0 == columns[c]) {
+					Preconditions.checkArgument(symbols < 127, "too many distinct characters in blocked words");
+					columns[c] = (byte) symbols++;
+				}
+			}
+		}
+		for (char c = 'A'; c <= 'Z'; c++) {
+			columns[c] = columns[Character.toLowerCase(c)];
+		}
+		this.width = symbols;
+
+		// trie
+		int[] table = newRows(new int[0], 16 * width);
+		boolean[] terminal = new boolean[16];
+		int states = 1;
+		for (String word : words) {
+			String lower = word.toLowerCase(Locale.ROOT);
+			int state = START;
+			for (int i = 0; i < lower.length(); i++) {
+				int cell = state * width + columns[lower.charAt(i)];
+				if (table[cell] < 0) {
+					if (states * width == table.length) {
+						table = newRows(table, table.length << 1);
+						terminal = Arrays.copyOf(terminal, states << 1);
+					}
+					table[cell] = states++;
+				}
+				state = table[cell];
+			}
+			terminal[state] = true;
+		}
+
+		// failure links in breadth-first order, folded into the table so that every cell holds the next state
+		int[] failure = new int[states];
+		var queue = new ArrayDeque<Integer>();
+		for (int symbol = 0; symbol < width; symbol++) {
+			int child = table[symbol];
+			if (child < 0) {
+				table[symbol] = START;
+			} else {
+				failure[child] = START;
+				queue.add(child);
+			}
+		}
+		while (!queue.isEmpty()) {
+			int state = queue.poll();
+			terminal[state] |= terminal[failure[state]];
+			for (int symbol = 0; symbol < width; symbol++) {
+				int cell = state * width + symbol;
+				int fallback = table[failure[state] * width + symbol];
+				if (table[cell] < 0) {
+					table[cell] = fallback;
+				} else {
+					failure[table[cell]] = fallback;
+					queue.add(table[cell]);
+				}
+			}
+		}
+		this.transitions = Arrays.copyOf(table, states * width);
+		this.blocked = Arrays.copyOf(terminal, states);
+	}
+
+	/**
+	 * Compiles {@code words}.
+	 *
+	 * @throws IllegalArgumentException if a word is empty or not ASCII
+	 */
+	static BlocklistAutomaton compile(Collection<String> words) {
+		return new BlocklistAutomaton(Objects.requireNonNull(words, "words"));
+	}
+
+	/**
+	 * Returns the state after reading {@code c} in {@code state}.
+	 */
+	int step(int state, char c) {
+		return transitions[state * width + (c < 128 ? columns[c] : 0)];
+	}
+
+	/**
+	 * Returns the state after reading {@code text} from {@link #START}.
+	 */
+	int run(CharSequence text) {
+		int state = START;
+		for (int i = 0; i < text.length(); i++) {
+			state = step(state, text.charAt(i));
+		}
+		return state;
+	}
+
+	boolean isBlocked(int state) {
+		return blocked[state];
+	}
+
+	/**
+	 * Returns whether {@code text} contains a blocked word.
+	 */
+	boolean matches(CharSequence text) {
+		int state = START;
+		for (int i = 0; i < text.length(); i++) {
+			state = step(state, text.charAt(i));
+			if (blocked[state]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	int stateCount() {
+		return blocked.length;
+	}
+
+	private static int[] newRows(int[] table, int length) {
+		int[] grown = Arrays.copyOf(table, length);
+		Arrays.fill(grown, table.length, length, -1);
+		return grown;
+	}
+}
@@ -0,0 +1,183 @@
+package com.inqwise.opinion.common;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+/**
+ * In-process cache of ids that are known not to exist, so that repeated lookups of deleted or
+ * never-existing ids are answered from memory instead of the database.
+ *
+ * <p>Entries live in a size-bounded Guava cache that expires them after a fixed time. A Bloom filter
+ * in front of it answers the common case, an id that was never recorded, without touching the cache.
+ * Bloom filters cannot forget, so the filter is rebuilt from the live entries once the number of
+ * recorded ids since the last rebuild exceeds the maximum size. An id recorded while a rebuild is
+ * running may be left out of the new filter; it then costs one more database lookup.
+ *
+ * <p>Ids are only unique per entity type, so use one cache per type. Call {@link #invalidate(long)}
+ * when an id is created, for example when ids are reused or restored.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class NegativeUidCache {
+	private final Cache<Long, Boolean> missing;
+	private final long maximumSize;
+	private final double falsePositiveProbability;
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+	private final LongAdder recordedSinceRebuild = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private volatile BloomFilter<Long> filter;
+
+	private NegativeUidCache(Builder builder) {
+		this.maximumSize = builder.maximumSize;
+		this.falsePositiveProbability = builder.falsePositiveProbability;
+		this.missing = CacheBuilder.newBuilder()
+				.maximumSize(builder.maximumSize)
+				.expireAfterWrite(builder.expireAfterWrite)
+				.ticker(builder.ticker)
+				.build();
+		this.filter = newFilter();
+	}
+
+	/**
+	 * Returns whether {@code id} was recorded as missing and has not expired or been invalidated.
+	 */
+	public boolean isKnownMissing(long id) {
+		if (!filter.mightContain(id)) {
+			return false;
+		}
+		boolean result = null != missing.getIfPresent(id);
+		if (result) {
+			hits.increment();
+		}
+		return result;
+	}
+
+	/**
+	 * Records that {@code id} does not exist.
+	 */
+	public void recordMissing(long id) {
+		missing.put(id, Boolean.TRUE);
+		filter.put(id);
+		recordedSinceRebuild.increment();
+		if (recordedSinceRebuild.sum() > maximumSize) {
+			rebuildFilter();
+		}
+	}
+
+	/**
+	 * Forgets {@code id}, typically because it has been created.
+	 */
+	public void invalidate(long id) {
+		missing.invalidate(id);
+	}
+
+	public void invalidateAll() {
+		missing.invalidateAll();
+		rebuildFilter();
+	}
+
+	/**
+	 * Returns the approximate number of ids recorded as missing.
+	 */
+	public long size() {
+		return missing.size();
+	}
+
+	/**
+	 * Returns the number of lookups answered from the cache.
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this)
+				.add("size", size())
+				.add("maximumSize", maximumSize)
+				.add("hits", getHitCount())
+				.toString();
+	}
+
+	private void rebuildFilter() {
+		if (!rebuilding.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			recordedSinceRebuild.reset();
+			missing.cleanUp();
+			BloomFilter<Long> rebuilt = newFilter();
+			for (Long id : missing.asMap().keySet()) {
+				rebuilt.put(id);
+			}
+			filter = rebuilt;
+		} finally {
+			rebuilding.set(false);
+		}
+	}
+
+	private BloomFilter<Long> newFilter() {
+		return BloomFilter.create(Funnels.longFunnel(), Math.max(1, maximumSize), falsePositiveProbability);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static final class Builder {
+		private long maximumSize = 100_000;
+		private Duration expireAfterWrite = Duration.ofMinutes(10);
+		private double falsePositiveProbability = 0.01;
+		private Ticker ticker = Ticker.systemTicker();
+
+		private Builder() {
+		}
+
+		public Builder withMaximumSize(long maximumSize) {
+			Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive");
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		public Builder withExpireAfterWrite(Duration expireAfterWrite) {
+			Objects.requireNonNull(expireAfterWrite, "expireAfterWrite");
+			Preconditions.checkArgument(!expireAfterWrite.isNegative() && !expireAfterWrite.isZero(), "expireAfterWrite must be positive");
+			this.expireAfterWrite = expireAfterWrite;
+			return this;
+		}
+
+		/**
+		 * Sets the false positive probability of the Bloom filter at {@link #withMaximumSize(long) maximum size}.
+		 */
+		public Builder withFalsePositiveProbability(double falsePositiveProbability) {
+			Preconditions.checkArgument(
+				falsePositiveProbability > 0 && falsePositiveProbability < 1,
+				"falsePositiveProbability must be between 0 and 1"
+			);
+			this.falsePositiveProbability = falsePositiveProbability;
+			return this;
+		}
+
+		/**
+		 * Sets the time source of the expiry, for tests.
+		 */
+		public Builder withTicker(Ticker ticker) {
+			this.ticker = Objects.requireNonNull(ticker, "ticker");
+			return this;
+		}
+
+		public NegativeUidCache build() {
+			return new NegativeUidCache(this);
+		}
+	}
+}
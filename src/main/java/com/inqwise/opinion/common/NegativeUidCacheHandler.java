@@ -0,0 +1,75 @@
+package com.inqwise.opinion.common;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+
+import com.inqwise.errors.ErrorCodes;
+import com.inqwise.errors.ErrorTicket;
+import com.inqwise.errors.Throws;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.HttpException;
+
+/**
+ * Answers requests for ids recorded in a {@link NegativeUidCache} with 404 before the route handler runs.
+ *
+ * <p>Mount it after the {@link UidParamHandler} that parses {@code paramName}, and mount
+ * {@link #failureHandler()} before {@link HttpErrorResponseHandler}. The failure handler records the id
+ * when the request fails with a {@code NotFound} {@link ErrorTicket}, a 404 {@link HttpException} or a
+ * plain 404 status. Failures raised by this handler itself are not recorded again, so cached ids still expire.
+ */
+public class NegativeUidCacheHandler implements Handler<RoutingContext> {
+	private static final HttpException NOT_FOUND = new HttpException(404, "not found");
+
+	private final NegativeUidCache cache;
+	private final String paramName;
+
+	/**
+	 * Constructs NegativeUidCacheHandler.
+	 *
+	 * @param cache ids known not to exist
+	 * @param paramName the parameter whose uid is checked, as configured on {@link UidParamHandler}
+	 */
+	public NegativeUidCacheHandler(NegativeUidCache cache, String paramName) {
+		this.cache = Objects.requireNonNull(cache, "cache");
+		this.paramName = Objects.requireNonNull(paramName, "paramName");
+	}
+
+	/**
+	 * handle.
+	 */
+	@Override
+	public void handle(RoutingContext context) {
+		Uid uid = UidParamHandler.uid(context, paramName);
+		if (null != uid && cache.isKnownMissing(uid.getIdAsLong())) {
+			context.fail(NOT_FOUND);
+		} else {
+			context.next();
+		}
+	}
+
+	/**
+	 * Returns the failure handler that records ids that were not found.
+	 */
+	public Handler<RoutingContext> failureHandler() {
+		return context -> {
+			Throwable failure = context.failure();
+			if (failure != NOT_FOUND && (null == failure ? 404 == context.statusCode() : isNotFound(failure))) {
+				Uid uid = UidParamHandler.uid(context, paramName);
+				if (null != uid) {
+					cache.recordMissing(uid.getIdAsLong());
+				}
+			}
+			context.next();
+		};
+	}
+
+	private static boolean isNotFound(Throwable failure) {
+		failure = Throws.unbox(failure, CompletionException.class);
+		if (failure instanceof ErrorTicket) {
+			return ((ErrorTicket) failure).getError() == ErrorCodes.NotFound;
+		}
+		return failure instanceof HttpException && ((HttpException) failure).getStatusCode() == 404;
+	}
+}
@@ -2,7 +2,7 @@ package com.inqwise.opinion.common;
 
 public final class NonExistStatus implements OpinionStatus {
 
-	private int value;
+	private final int value;
 	
 	public NonExistStatus(int value) {
 		this.value = value;
@@ -13,6 +13,16 @@ public final class NonExistStatus implements OpinionStatus {
 		return value;
 	}
 	
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof NonExistStatus && ((NonExistStatus) obj).value == value;
+	}
+
+	@Override
+	public int hashCode() {
+		return Integer.hashCode(value);
+	}
+
 	@Override
 	public String toString() {
 		return String.format("Status%s", value);
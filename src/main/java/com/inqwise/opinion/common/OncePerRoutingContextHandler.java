@@ -11,7 +11,15 @@ public abstract class OncePerRoutingContextHandler implements Handler<RoutingCon
 	
 	private final String seenKey; 
 	public OncePerRoutingContextHandler() {
-		seenKey = "SEEN-" + this.getClass().getSimpleName();
+		this(null);
+	}
+	
+	/**
+	 * @param name distinguishes instances of the same class that must each run once, for example
+	 * handlers configured for different parameters; {@code null} shares one key per class
+	 */
+	protected OncePerRoutingContextHandler(String name) {
+		seenKey = "SEEN-" + this.getClass().getSimpleName() + (null == name ? "" : "-" + name);
 	}
 	
 	@Override
@@ -22,9 +30,18 @@ public abstract class OncePerRoutingContextHandler implements Handler<RoutingCon
 				logger.trace(seenKey);
 			}
 			handleOnce(context);
+		} else {
+			handleSeen(context);
 		}
 		
 	}
 	
 	public abstract void handleOnce(RoutingContext context); 
+	
+	/**
+	 * Called instead of {@link #handleOnce(RoutingContext)} when the context was already handled.
+	 * Does nothing by default; handlers mounted on several routes override it to call {@code next()}.
+	 */
+	protected void handleSeen(RoutingContext context) {
+	}
 }
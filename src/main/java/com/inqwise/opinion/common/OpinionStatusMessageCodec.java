@@ -0,0 +1,61 @@
+package com.inqwise.opinion.common;
+
+import java.util.Objects;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event-bus codec for {@link OpinionStatus} values.
+ *
+ * <p>Local delivery passes the instance by reference. Clustered delivery writes the status value as
+ * four bytes and the receiver resolves it with {@link OpinionStatus#parse(int)}, so consumers should
+ * expect an {@link OpinionStatus} rather than the concrete class that was sent.
+ *
+ * <p>Vert.x selects default codecs by the concrete class of the body, so one codec is registered per
+ * status class.
+ *
+ * @param <S> the concrete status class
+ */
+public final class OpinionStatusMessageCodec<S extends OpinionStatus> implements MessageCodec<S, OpinionStatus> {
+	private final String name;
+
+	public OpinionStatusMessageCodec(Class<S> type) {
+		this.name = "opinion-status-" + Objects.requireNonNull(type, "type").getSimpleName();
+	}
+
+	/**
+	 * Registers default codecs for {@link OpinionEntityStatus} and {@link NonExistStatus} on {@code eventBus}.
+	 */
+	public static EventBus register(EventBus eventBus) {
+		return eventBus
+				.registerDefaultCodec(OpinionEntityStatus.class, new OpinionStatusMessageCodec<>(OpinionEntityStatus.class))
+				.registerDefaultCodec(NonExistStatus.class, new OpinionStatusMessageCodec<>(NonExistStatus.class));
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, S status) {
+		buffer.appendInt(status.value());
+	}
+
+	@Override
+	public OpinionStatus decodeFromWire(int pos, Buffer buffer) {
+		return OpinionStatus.parse(buffer.getInt(pos));
+	}
+
+	@Override
+	public OpinionStatus transform(S status) {
+		return status;
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+}
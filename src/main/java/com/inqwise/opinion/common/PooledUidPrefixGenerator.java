@@ -0,0 +1,267 @@
+package com.inqwise.opinion.common;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Serves prefixes of a {@link UidPrefixGenerator} from a pool that is filled ahead of time, keeping
+ * prefix generation off the latency path of bursty creation traffic.
+ *
+ * <p>Prefixes wait in a bounded, lock-free ring buffer. {@link #generate()} never blocks. It takes a
+ * ready prefix, or generates one inline when the pool is empty. Once the pool drops below the low-water
+ * mark, a refill task is submitted to the configured executor, which defaults to a new virtual thread.
+ * At most one refill runs at a time. Pass a Vert.x worker, for example
+ * {@code task -> vertx.executeBlocking(() -> { task.run(); return null; })}, to refill on the worker pool.
+ *
+ * <p>Use one pool per generator configuration. This class is thread-safe.
+ */
+public final class PooledUidPrefixGenerator {
+	private static final Logger logger = LogManager.getLogger(PooledUidPrefixGenerator.class);
+
+	private static final Executor VIRTUAL_THREAD_EXECUTOR = task -> Thread.ofVirtual().name("uid-prefix-refill").start(task);
+
+	private final UidPrefixGenerator generator;
+	private final RingBuffer pool;
+	private final int lowWaterMark;
+	private final Executor executor;
+	private final AtomicBoolean refilling = new AtomicBoolean();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	private PooledUidPrefixGenerator(Builder builder) {
+		this.generator = builder.generator;
+		this.pool = new RingBuffer(Integer.highestOneBit(builder.capacity - 1) << 1);
+		this.lowWaterMark = builder.lowWaterMark < 0
+				? Math.max(1, pool.capacity() / 4)
+				: Math.min(builder.lowWaterMark, pool.capacity() - 1);
+		this.executor = builder.executor;
+		scheduleRefill();
+	}
+
+	/**
+	 * Returns a pooled prefix, or generates one on the calling thread if the pool is empty.
+	 */
+	public String generate() {
+		String prefix = pool.poll();
+		if (null != prefix) {
+			hits.increment();
+		} else {
+			misses.increment();
+			prefix = generator.generate();
+		}
+		if (pool.size() < lowWaterMark) {
+			scheduleRefill();
+		}
+		return prefix;
+	}
+
+	public UidPrefixGenerator getGenerator() {
+		return generator;
+	}
+
+	/**
+	 * Returns the approximate number of ready prefixes.
+	 */
+	public int getPoolSize() {
+		return pool.size();
+	}
+
+	public int getCapacity() {
+		return pool.capacity();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the share of prefixes served from the pool, or 1 before the first call.
+	 */
+	public double getHitRate() {
+		long hitCount = getHitCount();
+		long total = hitCount + getMissCount();
+		return 0 == total ? 1.0 : (double) hitCount / total;
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this)
+				.add("poolSize", getPoolSize())
+				.add("capacity", getCapacity())
+				.add("hits", getHitCount())
+				.add("misses", getMissCount())
+				.toString();
+	}
+
+	private void scheduleRefill() {
+		if (!refilling.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			executor.execute(this::refill);
+		} catch (RuntimeException e) {
+			refilling.set(false);
+			logger.warn("failed to schedule prefix pool refill", e);
+		}
+	}
+
+	private void refill() {
+		boolean filled = false;
+		try {
+			// this is the only producer, so no generated prefix, possibly claimed by a uniqueness guard, is dropped
+			while (pool.size() < pool.capacity()) {
+				String prefix = generator.generate();
+				while (!pool.offer(prefix)) {
+					// a consumer has taken the slot but not yet released it
+					Thread.onSpinWait();
+				}
+			}
+			filled = true;
+		} catch (RuntimeException e) {
+			logger.warn("prefix pool refill failed", e);
+		} finally {
+			refilling.set(false);
+		}
+		// consumers that drained the pool while the flag was still set did not schedule a refill
+		if (filled && pool.size() < lowWaterMark) {
+			scheduleRefill();
+		}
+	}
+
+	public static Builder builder(UidPrefixGenerator generator) {
+		return new Builder(generator);
+	}
+
+	/**
+	 * Bounded multi-producer multi-consumer queue after Dmitry Vyukov: every slot carries a sequence
+	 * number that tells producers and consumers whose turn it is, so both sides only CAS their own index.
+	 */
+	private static final class RingBuffer {
+		private final AtomicReferenceArray<String> slots;
+		private final AtomicLongArray sequences;
+		private final int mask;
+		private final AtomicLong head = new AtomicLong();
+		private final AtomicLong tail = new AtomicLong();
+
+		private RingBuffer(int capacity) {
+			this.slots = new AtomicReferenceArray<>(capacity);
+			this.sequences = new AtomicLongArray(capacity);
+			this.mask = capacity - 1;
+			for (int i = 0; i < capacity; i++) {
+				sequences.set(i, i);
+			}
+		}
+
+		private boolean offer(String value) {
+			long position = tail.get();
+			while (true) {
+				int index = (int) position & mask;
+				long difference = sequences.getAcquire(index) - position;
+				if (0 == difference) {
+					if (tail.compareAndSet(position, position + 1)) {
+						slots.setPlain(index, value);
+						sequences.setRelease(index, position + 1);
+						return true;
+					}
+					position = tail.get();
+				} else if (difference < 0) {
+					return false;
+				} else {
+					position = tail.get();
+				}
+			}
+		}
+
+		private String poll() {
+			long position = head.get();
+			while (true) {
+				int index = (int) position & mask;
+				long difference = sequences.getAcquire(index) - (position + 1);
+				if (0 == difference) {
+					if (head.compareAndSet(position, position + 1)) {
+						String value = slots.getPlain(index);
+						slots.setPlain(index, null);
+						sequences.setRelease(index, position + mask + 1);
+						return value;
+					}
+					position = head.get();
+				} else if (difference < 0) {
+					return null;
+				} else {
+					position = head.get();
+				}
+			}
+		}
+
+		private int size() {
+			long size = tail.get() - head.get();
+			return (int) Math.max(0, Math.min(size, capacity()));
+		}
+
+		private int capacity() {
+			return mask + 1;
+		}
+	}
+
+	/**
+	 * Builder for {@link PooledUidPrefixGenerator}.
+	 */
+	public static final class Builder {
+		private final UidPrefixGenerator generator;
+		private int capacity = 1024;
+		private int lowWaterMark = -1;
+		private Executor executor = VIRTUAL_THREAD_EXECUTOR;
+
+		private Builder(UidPrefixGenerator generator) {
+			this.generator = Objects.requireNonNull(generator, "generator");
+		}
+
+		/**
+		 * Sets the number of pooled prefixes, rounded up to a power of two. Defaults to 1024.
+		 */
+		public Builder capacity(int capacity) {
+			Preconditions.checkArgument(capacity > 1 && capacity <= 1 << 24, "capacity must be between 2 and 2^24");
+			this.capacity = capacity;
+			return this;
+		}
+
+		/**
+		 * Sets the pool size below which a refill starts. Defaults to a quarter of the capacity.
+		 */
+		public Builder lowWaterMark(int lowWaterMark) {
+			Preconditions.checkArgument(lowWaterMark > 0, "lowWaterMark must be positive");
+			this.lowWaterMark = lowWaterMark;
+			return this;
+		}
+
+		/**
+		 * Sets the executor that runs refills. Defaults to a new virtual thread per refill.
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = Objects.requireNonNull(executor, "executor");
+			return this;
+		}
+
+		/**
+		 * Builds the pool and starts filling it.
+		 */
+		public PooledUidPrefixGenerator build() {
+			return new PooledUidPrefixGenerator(this);
+		}
+	}
+}
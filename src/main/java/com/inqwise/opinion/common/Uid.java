@@ -1,36 +1,100 @@
 package com.inqwise.opinion.common;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
-import com.google.common.base.Preconditions;
+import com.google.common.base.MoreObjects;
 
-public class Uid {
-	private Long id;
-	private String prefix;
-	private final static char SEPARATOR = '-';
+public final class Uid {
+	private final long id;
+	private final boolean hasId;
+	private final String prefix;
+	// racy single-check: both values are immutable, so a thread that misses the write only recomputes it
+	private String token;
+	private FormattedToken formattedToken;
 
 	private Uid(Builder builder) {
 		this.id = builder.id;
+		this.hasId = builder.hasId;
 		this.prefix = builder.prefix;
 	}
-	
+
 	public Long getId() {
+		return hasId ? id : null;
+	}
+
+	/**
+	 * Returns the id without boxing.
+	 *
+	 * @throws NullPointerException if the id is not set
+	 */
+	public long getIdAsLong() {
+		if (!hasId) {
+			throw new NullPointerException("id");
+		}
 		return id;
 	}
-	
+
+	public boolean hasId() {
+		return hasId;
+	}
+
 	public String getPrefix() {
 		return prefix;
 	}
-	
+
+	/**
+	 * Returns the token in {@link UidFormat#DEFAULT}, encoding it on the first call only.
+	 */
 	public String toUidToken() {
-		
-		Objects.requireNonNull(id, "id");
-		Objects.requireNonNull(prefix, "prefix");
-		var builder = new StringBuilder();
-		builder.append(prefix).append(SEPARATOR).append(AnyBaseEncoder.BASE_52.encode(id.longValue()));
-		return builder.toString();
-	}
-	
+		String result = token;
+		if (null == result) {
+			result = UidFormat.DEFAULT.format(this);
+			token = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the token in {@code format}. The most recently used non-default format is cached.
+	 */
+	public String toUidToken(UidFormat format) {
+		Objects.requireNonNull(format, "format");
+		if (format == UidFormat.DEFAULT) {
+			return toUidToken();
+		}
+		FormattedToken result = formattedToken;
+		if (null == result || result.format != format) {
+			result = new FormattedToken(format, format.format(this));
+			formattedToken = result;
+		}
+		return result.token;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Uid)) {
+			return false;
+		}
+		Uid other = (Uid) obj;
+		return id == other.id && hasId == other.hasId && Objects.equals(prefix, other.prefix);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(id) + Objects.hashCode(prefix);
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).add("id", getId()).add("prefix", prefix).toString();
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -40,7 +104,8 @@ public class Uid {
 	}
 
 	public static final class Builder {
-		private Long id;
+		private long id;
+		private boolean hasId;
 		private String prefix;
 
 		private Builder() {
@@ -48,10 +113,18 @@ public class Uid {
 
 		private Builder(Uid uid) {
 			this.id = uid.id;
+			this.hasId = uid.hasId;
 			this.prefix = uid.prefix;
 		}
 
 		public Builder withId(Long id) {
+			this.hasId = null != id;
+			this.id = hasId ? id.longValue() : 0L;
+			return this;
+		}
+
+		public Builder withId(long id) {
+			this.hasId = true;
 			this.id = id;
 			return this;
 		}
@@ -65,14 +138,61 @@ public class Uid {
 			return new Uid(this);
 		}
 	}
-	
+
 	public static final Uid parse(String uidToken) {
-		Objects.requireNonNull(uidToken);
-		int separatorIndex = uidToken.indexOf(SEPARATOR);
-		Preconditions.checkElementIndex(separatorIndex, uidToken.length(), "invalid uidToken, no separator found");
-		String prefix = uidToken.substring(0, separatorIndex);
-		String base52id = uidToken.substring(separatorIndex + 1, uidToken.length());
-		long id = AnyBaseEncoder.BASE_52.decodeToLong(base52id);
-		return builder().withId(id).withPrefix(prefix).build();
+		return UidFormat.DEFAULT.parse(uidToken);
+	}
+
+	/**
+	 * Parses a token in {@link UidFormat#DEFAULT} without throwing.
+	 *
+	 * @see UidFormat#tryParse(CharSequence)
+	 */
+	public static Optional<Uid> tryParse(CharSequence uidToken) {
+		return UidFormat.DEFAULT.tryParse(uidToken);
+	}
+
+	/**
+	 * Parses tokens in {@link UidFormat#DEFAULT} on the calling thread, collecting invalid positions instead of throwing.
+	 *
+	 * @see UidFormat#parseAll(List, Executor)
+	 */
+	public static UidParseResult parseAll(List<? extends CharSequence> uidTokens) {
+		return UidFormat.DEFAULT.parseAll(uidTokens);
+	}
+
+	/**
+	 * Parses tokens in {@link UidFormat#DEFAULT}, splitting large batches across {@code executor}.
+	 *
+	 * @see UidFormat#parseAll(List, Executor)
+	 */
+	public static UidParseResult parseAll(List<? extends CharSequence> uidTokens, Executor executor) {
+		return UidFormat.DEFAULT.parseAll(uidTokens, executor);
+	}
+
+	/**
+	 * Formats the tokens of {@code uids} in {@link UidFormat#DEFAULT} on the calling thread.
+	 */
+	public static String[] toUidTokens(List<Uid> uids) {
+		return UidFormat.DEFAULT.formatAll(uids, null);
+	}
+
+	/**
+	 * Formats the tokens of {@code uids} in {@link UidFormat#DEFAULT}, splitting large batches across {@code executor}.
+	 *
+	 * @see UidFormat#formatAll(List, Executor)
+	 */
+	public static String[] toUidTokens(List<Uid> uids, Executor executor) {
+		return UidFormat.DEFAULT.formatAll(uids, executor);
+	}
+
+	private static final class FormattedToken {
+		private final UidFormat format;
+		private final String token;
+
+		private FormattedToken(UidFormat format, String token) {
+			this.format = format;
+			this.token = token;
+		}
 	}
 }
@@ -0,0 +1,327 @@
+package com.inqwise.opinion.common;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Growable, columnar list of {@link Uid}s for large in-memory id sets.
+ *
+ * <p>Ids are kept in a {@code long[]} and prefixes as int codes of a {@link UidPrefixDictionary},
+ * so an element costs 12 bytes instead of a {@link Uid} object, its prefix reference and its cached
+ * token. {@link Uid} instances are only created by {@link #get(int)} and the iterator; the
+ * column accessors and {@link #toUidTokens(UidFormat)} work on the primitive columns directly.
+ *
+ * <p>Every element has both an id and a prefix. This class is not thread-safe; the dictionary it
+ * uses may be shared.
+ */
+public final class UidArray implements Iterable<Uid> {
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int INSERTION_SORT_THRESHOLD = 24;
+
+	private final UidPrefixDictionary dictionary;
+	private long[] ids;
+	private int[] prefixCodes;
+	private int size;
+	// true while ids are known to be in ascending order
+	private boolean sorted = true;
+
+	public UidArray() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public UidArray(int initialCapacity) {
+		this(initialCapacity, new UidPrefixDictionary());
+	}
+
+	public UidArray(int initialCapacity, UidPrefixDictionary dictionary) {
+		Preconditions.checkArgument(initialCapacity >= 0, "initialCapacity must not be negative");
+		this.dictionary = Objects.requireNonNull(dictionary, "dictionary");
+		this.ids = new long[initialCapacity];
+		this.prefixCodes = new int[initialCapacity];
+	}
+
+	/**
+	 * Appends {@code uid}.
+	 *
+	 * @throws NullPointerException if the id or the prefix is not set
+	 */
+	public UidArray add(Uid uid) {
+		Objects.requireNonNull(uid, "uid");
+		return add(uid.getIdAsLong(), uid.getPrefix());
+	}
+
+	/**
+	 * Appends an element without creating a {@link Uid}.
+	 */
+	public UidArray add(long id, String prefix) {
+		return addCode(id, dictionary.codeOf(prefix));
+	}
+
+	public UidArray addAll(Iterable<Uid> uids) {
+		Objects.requireNonNull(uids, "uids");
+		for (Uid uid : uids) {
+			add(uid);
+		}
+		return this;
+	}
+
+	private UidArray addCode(long id, int prefixCode) {
+		if (size == ids.length) {
+			grow(size + 1);
+		}
+		if (sorted && size > 0 && ids[size - 1] > id) {
+			sorted = false;
+		}
+		ids[size] = id;
+		prefixCodes[size] = prefixCode;
+		size++;
+		return this;
+	}
+
+	/**
+	 * Appends all elements of {@code other}, which must use the same dictionary.
+	 */
+	void appendAll(UidArray other) {
+		Preconditions.checkArgument(other.dictionary == dictionary, "dictionaries differ");
+		if (0 == other.size) {
+			return;
+		}
+		if (size + other.size > ids.length) {
+			grow(size + other.size);
+		}
+		sorted = sorted && other.sorted && (0 == size || ids[size - 1] <= other.ids[0]);
+		System.arraycopy(other.ids, 0, ids, size, other.size);
+		System.arraycopy(other.prefixCodes, 0, prefixCodes, size, other.size);
+		size += other.size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return 0 == size;
+	}
+
+	public UidPrefixDictionary getDictionary() {
+		return dictionary;
+	}
+
+	public Uid get(int index) {
+		Objects.checkIndex(index, size);
+		return Uid.builder().withId(ids[index]).withPrefix(dictionary.prefixOf(prefixCodes[index])).build();
+	}
+
+	public long getId(int index) {
+		Objects.checkIndex(index, size);
+		return ids[index];
+	}
+
+	public String getPrefix(int index) {
+		Objects.checkIndex(index, size);
+		return dictionary.prefixOf(prefixCodes[index]);
+	}
+
+	public int getPrefixCode(int index) {
+		Objects.checkIndex(index, size);
+		return prefixCodes[index];
+	}
+
+	/**
+	 * Passes every id to {@code action} in order, without creating {@link Uid}s.
+	 */
+	public void forEachId(LongConsumer action) {
+		Objects.requireNonNull(action, "action");
+		for (int i = 0; i < size; i++) {
+			action.accept(ids[i]);
+		}
+	}
+
+	/**
+	 * Returns a copy of the id column.
+	 */
+	public long[] toIdArray() {
+		return Arrays.copyOf(ids, size);
+	}
+
+	/**
+	 * Returns whether the ids are in ascending order, so that {@link #indexOfId(long)} can be used.
+	 */
+	public boolean isSortedById() {
+		return sorted;
+	}
+
+	/**
+	 * Sorts the elements by id in ascending order. Elements with equal ids keep no particular order.
+	 */
+	public UidArray sortById() {
+		if (!sorted) {
+			sort(0, size - 1);
+			sorted = true;
+		}
+		return this;
+	}
+
+	/**
+	 * Binary searches the sorted ids.
+	 *
+	 * @return the index of an element with {@code id}, or {@code (-(insertion point) - 1)} as in
+	 * {@link Arrays#binarySearch(long[], long)}
+	 * @throws IllegalStateException if the array is not sorted by id
+	 */
+	public int indexOfId(long id) {
+		Preconditions.checkState(sorted, "UidArray is not sorted by id");
+		return Arrays.binarySearch(ids, 0, size, id);
+	}
+
+	/**
+	 * Formats the tokens of all elements in {@link UidFormat#DEFAULT}.
+	 */
+	public String[] toUidTokens() {
+		return toUidTokens(UidFormat.DEFAULT);
+	}
+
+	/**
+	 * Formats the tokens of all elements, reusing one buffer and without creating {@link Uid}s.
+	 */
+	public String[] toUidTokens(UidFormat format) {
+		return toUidTokens(format, null);
+	}
+
+	/**
+	 * Formats the tokens of all elements, splitting large arrays across {@code executor}.
+	 *
+	 * @see UidFormat#formatAll(List, Executor)
+	 */
+	public String[] toUidTokens(UidFormat format, Executor executor) {
+		Objects.requireNonNull(format, "format");
+		return format.formatAll(this, executor);
+	}
+
+	/**
+	 * Appends the tokens of all elements to {@code builder}, separated by {@code delimiter}.
+	 */
+	public StringBuilder appendUidTokens(UidFormat format, StringBuilder builder, char delimiter) {
+		Objects.requireNonNull(format, "format");
+		Objects.requireNonNull(builder, "builder");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				builder.append(delimiter);
+			}
+			format.formatTo(ids[i], dictionary.prefixOf(prefixCodes[i]), builder);
+		}
+		return builder;
+	}
+
+	/**
+	 * Shrinks the backing arrays to the current size.
+	 */
+	public void trimToSize() {
+		if (size < ids.length) {
+			ids = Arrays.copyOf(ids, size);
+			prefixCodes = Arrays.copyOf(prefixCodes, size);
+		}
+	}
+
+	public void clear() {
+		size = 0;
+		sorted = true;
+	}
+
+	@Override
+	public Iterator<Uid> iterator() {
+		return new Iterator<>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public Uid next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+				return get(next++);
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).add("size", size).add("sorted", sorted).toString();
+	}
+
+	private void grow(int minCapacity) {
+		int capacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, ids.length + (ids.length >> 1)));
+		ids = Arrays.copyOf(ids, capacity);
+		prefixCodes = Arrays.copyOf(prefixCodes, capacity);
+	}
+
+	// quicksort over both columns; recurses into the smaller part so the stack stays logarithmic
+	private void sort(int low, int high) {
+		while (high - low >= INSERTION_SORT_THRESHOLD) {
+			int middle = (low + high) >>> 1;
+			if (ids[middle] < ids[low]) {
+				swap(middle, low);
+			}
+			if (ids[high] < ids[low]) {
+				swap(high, low);
+			}
+			if (ids[high] < ids[middle]) {
+				swap(high, middle);
+			}
+			long pivot = ids[middle];
+			int left = low;
+			int right = high;
+			while (left <= right) {
+				while (ids[left] < pivot) {
+					left++;
+				}
+				while (ids[right] > pivot) {
+					right--;
+				}
+				if (left <= right) {
+					swap(left++, right--);
+				}
+			}
+			if (right - low < high - left) {
+				sort(low, right);
+				low = left;
+			} else {
+				sort(left, high);
+				high = right;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			long id = ids[i];
+			int code = prefixCodes[i];
+			int j = i - 1;
+			while (j >= low && ids[j] > id) {
+				ids[j + 1] = ids[j];
+				prefixCodes[j + 1] = prefixCodes[j];
+				j--;
+			}
+			ids[j + 1] = id;
+			prefixCodes[j + 1] = code;
+		}
+	}
+
+	private void swap(int a, int b) {
+		long id = ids[a];
+		ids[a] = ids[b];
+		ids[b] = id;
+		int code = prefixCodes[a];
+		prefixCodes[a] = prefixCodes[b];
+		prefixCodes[b] = code;
+	}
+}
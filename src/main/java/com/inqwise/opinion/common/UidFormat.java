@@ -0,0 +1,518 @@
+package com.inqwise.opinion.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Text format of {@link Uid} tokens: {@code <prefix>-<base-52 id>[check digit]}.
+ *
+ * <p>The optional check digit is computed with the Damm algorithm over the decimal digits of the
+ * prefix characters and the encoded id. Base-52 ids contain letters only, so a trailing decimal digit
+ * always marks a check digit and tokens with and without one can be told apart. Every format verifies
+ * a check digit when a token carries one; {@link Builder#requireCheckCharacter(boolean)} additionally
+ * rejects tokens without it. This turns away roughly nine out of ten mistyped or guessed tokens
+ * before they reach the database.
+ *
+ * <p>With {@link Builder#permutationKey(long)} ids are passed through a keyed, reversible permutation
+ * of the non-negative longs before encoding, so consecutive database ids yield unrelated tokens that
+ * still decode straight to the real id. The permutation is an eight-round Feistel network over 64 bits,
+ * cycle-walked back into the non-negative range. It hides the sequence of ids, but it is not
+ * encryption and does not replace authorization checks. Permuted ids are spread over the whole long
+ * range, so their tokens are 11 to 12 characters long. Tokens are only readable with the key that
+ * wrote them.
+ *
+ * <p>Parsed prefixes are interned in a {@link UidPrefixPool}, see {@link Builder#prefixPool(UidPrefixPool)}.
+ *
+ * <p>This class is immutable and thread-safe.
+ */
+public final class UidFormat {
+
+	/**
+	 * Legacy format: writes tokens without a check digit and accepts tokens with or without one.
+	 */
+	public static final UidFormat DEFAULT = builder().build();
+
+	static final char SEPARATOR = '-';
+	static final int BATCH_CHUNK_SIZE = 4096;
+	private static final AnyBaseEncoder ENCODER = AnyBaseEncoder.BASE_52;
+
+	// totally anti-symmetric quasigroup of order 10 used by the Damm algorithm
+	private static final byte[][] DAMM = {
+		{ 0, 3, 1, 7, 5, 9, 8, 6, 4, 2 },
+		{ 7, 0, 9, 2, 1, 5, 4, 8, 6, 3 },
+		{ 4, 2, 0, 6, 8, 7, 1, 3, 5, 9 },
+		{ 1, 7, 5, 0, 9, 8, 3, 4, 2, 6 },
+		{ 6, 1, 2, 3, 0, 4, 5, 9, 7, 8 },
+		{ 3, 6, 7, 4, 2, 0, 9, 5, 8, 1 },
+		{ 5, 8, 6, 9, 7, 2, 0, 1, 3, 4 },
+		{ 8, 9, 4, 5, 3, 6, 2, 0, 1, 7 },
+		{ 9, 4, 3, 8, 6, 1, 7, 2, 0, 5 },
+		{ 2, 5, 8, 1, 4, 3, 6, 7, 9, 0 }
+	};
+
+	private static final int FEISTEL_ROUNDS = 8;
+
+	private final boolean checkCharacter;
+	private final boolean requireCheckCharacter;
+	// Feistel round keys, null when ids are not permuted
+	private final long[] roundKeys;
+	// null when prefixes are not pooled
+	private final UidPrefixPool prefixPool;
+
+	private UidFormat(Builder builder) {
+		this.checkCharacter = builder.checkCharacter;
+		this.requireCheckCharacter = builder.requireCheckCharacter;
+		this.roundKeys = builder.permutationKey == null ? null : buildRoundKeys(builder.permutationKey);
+		this.prefixPool = builder.prefixPool;
+	}
+
+	/**
+	 * Returns whether tokens are written with a check digit.
+	 */
+	public boolean isCheckCharacter() {
+		return checkCharacter;
+	}
+
+	/**
+	 * Returns whether tokens without a check digit are rejected.
+	 */
+	public boolean isCheckCharacterRequired() {
+		return requireCheckCharacter;
+	}
+
+	/**
+	 * Returns whether ids are permuted before encoding.
+	 */
+	public boolean isPermuted() {
+		return roundKeys != null;
+	}
+
+	/**
+	 * Formats the token of {@code uid}.
+	 *
+	 * @throws NullPointerException if the id or the prefix is not set
+	 */
+	public String format(Uid uid) {
+		Objects.requireNonNull(uid, "uid");
+		long id = uid.getIdAsLong();
+		String prefix = Objects.requireNonNull(uid.getPrefix(), "prefix");
+
+		var builder = new StringBuilder(prefix.length() + 2 + ENCODER.getMaxLongLength());
+		formatTo(id, prefix, builder);
+		return builder.toString();
+	}
+
+	/**
+	 * Appends the token of {@code id} and {@code prefix} to {@code builder} without creating a {@link Uid}.
+	 */
+	void formatTo(long id, String prefix, StringBuilder builder) {
+		long value = permute(id);
+		builder.append(prefix).append(SEPARATOR);
+		ENCODER.encodeTo(value, builder);
+		if (checkCharacter) {
+			builder.append((char) ('0' + checkDigit(prefix, 0, prefix.length(), value)));
+		}
+	}
+
+	/**
+	 * Parses a token.
+	 *
+	 * @throws IndexOutOfBoundsException if the token has no separator
+	 * @throws IllegalArgumentException if the token is malformed or its check digit does not match
+	 * @throws ArithmeticException if the id does not fit in a long
+	 */
+	public Uid parse(String uidToken) {
+		Objects.requireNonNull(uidToken);
+		int separatorIndex = uidToken.indexOf(SEPARATOR);
+		Preconditions.checkElementIndex(separatorIndex, uidToken.length(), "invalid uidToken, no separator found");
+
+		int idEnd = uidToken.length();
+		int check = checkDigitAt(uidToken, separatorIndex, idEnd);
+		if (check >= 0) {
+			idEnd--;
+		} else {
+			Preconditions.checkArgument(!requireCheckCharacter, "invalid uidToken, check character missing");
+		}
+		long id = ENCODER.decodeToLong(uidToken, separatorIndex + 1, idEnd);
+		Preconditions.checkArgument(
+			check < 0 || check == checkDigit(uidToken, 0, separatorIndex, id),
+			"invalid uidToken, check character mismatch"
+		);
+		String prefix = prefix(uidToken, separatorIndex);
+		return Uid.builder().withId(unpermute(id)).withPrefix(prefix).build();
+	}
+
+	/**
+	 * Parses a token without throwing, for high volumes of untrusted input.
+	 * The token is validated in a single pass and nothing is allocated unless it is valid.
+	 *
+	 * @return the parsed uid, or empty if the token is null or malformed
+	 */
+	public Optional<Uid> tryParse(CharSequence uidToken) {
+		int separatorIndex = separatorIndexOf(uidToken);
+		if (separatorIndex < 0) {
+			return Optional.empty();
+		}
+		long id = tryParseId(uidToken, separatorIndex);
+		if (id < 0) {
+			return Optional.empty();
+		}
+		String prefix = prefix(uidToken, separatorIndex);
+		return Optional.of(Uid.builder().withId(id).withPrefix(prefix).build());
+	}
+
+	/**
+	 * Parses every token without throwing. Invalid tokens are reported by position instead of failing the batch.
+	 */
+	public UidParseResult parseAll(List<? extends CharSequence> uidTokens) {
+		return parseAll(uidTokens, null);
+	}
+
+	/**
+	 * Parses every token without throwing, splitting batches larger than {@value #BATCH_CHUNK_SIZE} tokens
+	 * into chunks that run on {@code executor}. The calling thread parses the first chunk and then waits
+	 * for the others, so the executor must not be the thread that calls this method.
+	 *
+	 * @param executor runs the chunks, or {@code null} to parse on the calling thread only
+	 */
+	public UidParseResult parseAll(List<? extends CharSequence> uidTokens, Executor executor) {
+		List<? extends CharSequence> tokens = randomAccess(uidTokens);
+		int size = tokens.size();
+		var dictionary = new UidPrefixDictionary();
+		var chunks = new ParsedChunk[chunkCount(size)];
+		runChunked(size, executor, (chunk, from, to) -> chunks[chunk] = parseChunk(tokens, from, to, dictionary));
+
+		int parsed = 0;
+		int errors = 0;
+		for (ParsedChunk chunk : chunks) {
+			parsed += chunk.uids.size();
+			errors += chunk.errorPositions.length;
+		}
+		var uids = new UidArray(parsed, dictionary);
+		var errorPositions = new int[errors];
+		errors = 0;
+		for (ParsedChunk chunk : chunks) {
+			uids.appendAll(chunk.uids);
+			System.arraycopy(chunk.errorPositions, 0, errorPositions, errors, chunk.errorPositions.length);
+			errors += chunk.errorPositions.length;
+		}
+		return new UidParseResult(uids, errorPositions, size);
+	}
+
+	/**
+	 * Formats the tokens of all {@code uids}, splitting batches larger than {@value #BATCH_CHUNK_SIZE}
+	 * across {@code executor} as {@link #parseAll(List, Executor)} does.
+	 *
+	 * @param executor runs the chunks, or {@code null} to format on the calling thread only
+	 * @throws NullPointerException if the id or the prefix of an uid is not set
+	 */
+	public String[] formatAll(List<Uid> uids, Executor executor) {
+		List<Uid> values = randomAccess(uids);
+		var tokens = new String[values.size()];
+		runChunked(tokens.length, executor, (chunk, from, to) -> {
+			for (int i = from; i < to; i++) {
+				tokens[i] = values.get(i).toUidToken(this);
+			}
+		});
+		return tokens;
+	}
+
+	String[] formatAll(UidArray uids, Executor executor) {
+		var tokens = new String[uids.size()];
+		runChunked(tokens.length, executor, (chunk, from, to) -> {
+			var builder = new StringBuilder(64);
+			for (int i = from; i < to; i++) {
+				builder.setLength(0);
+				formatTo(uids.getId(i), uids.getPrefix(i), builder);
+				tokens[i] = builder.toString();
+			}
+		});
+		return tokens;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private ParsedChunk parseChunk(List<? extends CharSequence> tokens, int from, int to, UidPrefixDictionary dictionary) {
+		var uids = new UidArray(to - from, dictionary);
+		var errorPositions = new int[8];
+		int errors = 0;
+		for (int i = from; i < to; i++) {
+			CharSequence token = tokens.get(i);
+			int separatorIndex = separatorIndexOf(token);
+			long id = separatorIndex < 0 ? -1 : tryParseId(token, separatorIndex);
+			if (id >= 0) {
+				uids.add(id, prefix(token, separatorIndex));
+			} else {
+				if (errors == errorPositions.length) {
+					errorPositions = Arrays.copyOf(errorPositions, errors << 1);
+				}
+				errorPositions[errors++] = i;
+			}
+		}
+		return new ParsedChunk(uids, Arrays.copyOf(errorPositions, errors));
+	}
+
+	/**
+	 * Returns the index of the separator, or -1 if the token is null or has none.
+	 */
+	private static int separatorIndexOf(CharSequence uidToken) {
+		if (null == uidToken) {
+			return -1;
+		}
+		int length = uidToken.length();
+		for (int i = 0; i < length; i++) {
+			if (uidToken.charAt(i) == SEPARATOR) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Validates the id part and its check digit and returns the unpermuted id, or -1 if the token is invalid.
+	 */
+	private long tryParseId(CharSequence uidToken, int separatorIndex) {
+		int idEnd = uidToken.length();
+		int check = checkDigitAt(uidToken, separatorIndex, idEnd);
+		if (check >= 0) {
+			idEnd--;
+		} else if (requireCheckCharacter) {
+			return -1;
+		}
+		long id = ENCODER.tryDecodeToLong(uidToken, separatorIndex + 1, idEnd);
+		if (id < 0 || (check >= 0 && check != checkDigit(uidToken, 0, separatorIndex, id))) {
+			return -1;
+		}
+		return unpermute(id);
+	}
+
+	private static <T> List<T> randomAccess(List<T> values) {
+		Objects.requireNonNull(values);
+		return values instanceof RandomAccess ? values : new ArrayList<>(values);
+	}
+
+	private static int chunkCount(int size) {
+		return Math.max(1, (size + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE);
+	}
+
+	private static void runChunked(int size, Executor executor, ChunkAction action) {
+		int chunks = chunkCount(size);
+		if (null == executor || chunks == 1) {
+			for (int chunk = 0; chunk < chunks; chunk++) {
+				action.run(chunk, chunk * BATCH_CHUNK_SIZE, Math.min(size, (chunk + 1) * BATCH_CHUNK_SIZE));
+			}
+			return;
+		}
+		var futures = new CompletableFuture<?>[chunks - 1];
+		for (int chunk = 1; chunk < chunks; chunk++) {
+			int index = chunk;
+			futures[chunk - 1] = CompletableFuture.runAsync(
+				() -> action.run(index, index * BATCH_CHUNK_SIZE, Math.min(size, (index + 1) * BATCH_CHUNK_SIZE)),
+				executor
+			);
+		}
+		action.run(0, 0, BATCH_CHUNK_SIZE);
+		try {
+			CompletableFuture.allOf(futures).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private String prefix(CharSequence uidToken, int separatorIndex) {
+		return null == prefixPool
+				? uidToken.subSequence(0, separatorIndex).toString()
+				: prefixPool.intern(uidToken, 0, separatorIndex);
+	}
+
+	/**
+	 * Maps an id to the value written in the token. Ids must be non-negative, and so is the result.
+	 */
+	long permute(long id) {
+		if (null == roundKeys || id < 0) {
+			return id;
+		}
+		// cycle-walk: the Feistel network permutes all 64-bit values, re-apply it until the result is non-negative
+		long value = id;
+		do {
+			value = encrypt(value);
+		} while (value < 0);
+		return value;
+	}
+
+	/**
+	 * Inverse of {@link #permute(long)}.
+	 */
+	long unpermute(long value) {
+		if (null == roundKeys || value < 0) {
+			return value;
+		}
+		long id = value;
+		do {
+			id = decrypt(id);
+		} while (id < 0);
+		return id;
+	}
+
+	private long encrypt(long block) {
+		int left = (int) (block >>> 32);
+		int right = (int) block;
+		for (int round = 0; round < FEISTEL_ROUNDS; round++) {
+			int next = left ^ roundFunction(right, roundKeys[round]);
+			left = right;
+			right = next;
+		}
+		return ((long) left << 32) | (right & 0xffffffffL);
+	}
+
+	private long decrypt(long block) {
+		int left = (int) (block >>> 32);
+		int right = (int) block;
+		for (int round = FEISTEL_ROUNDS - 1; round >= 0; round--) {
+			int previous = right ^ roundFunction(left, roundKeys[round]);
+			right = left;
+			left = previous;
+		}
+		return ((long) left << 32) | (right & 0xffffffffL);
+	}
+
+	private static int roundFunction(int half, long roundKey) {
+		return (int) (mix64((half & 0xffffffffL) ^ roundKey) >>> 32);
+	}
+
+	private static long[] buildRoundKeys(long key) {
+		// SplitMix64 sequence seeded with the key
+		long[] roundKeys = new long[FEISTEL_ROUNDS];
+		long state = key;
+		for (int i = 0; i < FEISTEL_ROUNDS; i++) {
+			state += 0x9e3779b97f4a7c15L;
+			roundKeys[i] = mix64(state);
+		}
+		return roundKeys;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Returns the trailing check digit of the id part, or -1 if there is none.
+	 */
+	private static int checkDigitAt(CharSequence uidToken, int separatorIndex, int end) {
+		if (end - separatorIndex < 2) {
+			return -1;
+		}
+		int digit = uidToken.charAt(end - 1) - '0';
+		return digit >= 0 && digit <= 9 ? digit : -1;
+	}
+
+	/**
+	 * Runs the Damm algorithm over the decimal digits of each prefix character followed by those of the id.
+	 */
+	private static int checkDigit(CharSequence prefix, int from, int to, long id) {
+		int interim = 0;
+		for (int i = from; i < to; i++) {
+			interim = damm(interim, prefix.charAt(i));
+		}
+		return damm(interim, id);
+	}
+
+	private static int damm(int interim, long value) {
+		long divisor = 1;
+		while (value / divisor >= 10) {
+			divisor *= 10;
+		}
+		for (; divisor > 0; divisor /= 10) {
+			interim = DAMM[interim][(int) (value / divisor % 10)];
+		}
+		return interim;
+	}
+
+	private interface ChunkAction {
+		void run(int chunk, int from, int to);
+	}
+
+	private static final class ParsedChunk {
+		private final UidArray uids;
+		private final int[] errorPositions;
+
+		private ParsedChunk(UidArray uids, int[] errorPositions) {
+			this.uids = uids;
+			this.errorPositions = errorPositions;
+		}
+	}
+
+	/**
+	 * Builder for {@link UidFormat}.
+	 */
+	public static final class Builder {
+		private boolean checkCharacter;
+		private boolean requireCheckCharacter;
+		private Long permutationKey;
+		private UidPrefixPool prefixPool = UidPrefixPool.SHARED;
+
+		private Builder() {
+		}
+
+		/**
+		 * Appends a check digit to every formatted token.
+		 */
+		public Builder checkCharacter(boolean checkCharacter) {
+			this.checkCharacter = checkCharacter;
+			return this;
+		}
+
+		/**
+		 * Rejects tokens without a check digit. Enable once legacy tokens are no longer in circulation.
+		 */
+		public Builder requireCheckCharacter(boolean requireCheckCharacter) {
+			this.requireCheckCharacter = requireCheckCharacter;
+			return this;
+		}
+
+		/**
+		 * Permutes ids with a Feistel network keyed by {@code permutationKey} before encoding them.
+		 * The key must be kept stable and shared by every service that reads the tokens.
+		 */
+		public Builder permutationKey(long permutationKey) {
+			this.permutationKey = permutationKey;
+			return this;
+		}
+
+		/**
+		 * Interns parsed prefixes in {@code prefixPool}, or allocates a new prefix per token when {@code null}.
+		 * Defaults to a pool of 1024 slots shared by all formats.
+		 */
+		public Builder prefixPool(UidPrefixPool prefixPool) {
+			this.prefixPool = prefixPool;
+			return this;
+		}
+
+		/**
+		 * Builds an immutable {@link UidFormat}.
+		 */
+		public UidFormat build() {
+			Preconditions.checkArgument(
+				checkCharacter || !requireCheckCharacter,
+				"a format that requires check characters must also write them"
+			);
+			return new UidFormat(this);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.inqwise.opinion.common;
+
+import java.nio.charset.StandardCharsets;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event-bus codec for {@link Uid}.
+ *
+ * <p>Local delivery passes the immutable instance by reference. Clustered delivery writes a flags byte,
+ * the id as an unsigned LEB128 varint and the prefix as a varint length followed by its UTF-8 bytes.
+ * A typical uid takes 6 to 14 bytes. ASCII prefixes are looked up in the shared {@link UidPrefixPool}
+ * straight from the buffer, so decoding a known prefix allocates no string; other prefixes are decoded as is.
+ */
+public final class UidMessageCodec implements MessageCodec<Uid, Uid> {
+	public static final UidMessageCodec INSTANCE = new UidMessageCodec();
+
+	private static final String NAME = "opinion-uid";
+	private static final int HAS_ID = 1;
+	private static final int HAS_PREFIX = 2;
+
+	private UidMessageCodec() {
+	}
+
+	/**
+	 * Registers this codec as the default codec for {@link Uid} on {@code eventBus}.
+	 */
+	public static EventBus register(EventBus eventBus) {
+		return eventBus.registerDefaultCodec(Uid.class, INSTANCE);
+	}
+
+	@Override
+	public void encodeToWire(Buffer buffer, Uid uid) {
+		String prefix = uid.getPrefix();
+		buffer.appendByte((byte) ((uid.hasId() ? HAS_ID : 0) | (null != prefix ? HAS_PREFIX : 0)));
+		if (uid.hasId()) {
+			appendVarLong(buffer, uid.getIdAsLong());
+		}
+		if (null != prefix) {
+			byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+			appendVarLong(buffer, bytes.length);
+			buffer.appendBytes(bytes);
+		}
+	}
+
+	@Override
+	public Uid decodeFromWire(int pos, Buffer buffer) {
+		int flags = buffer.getByte(pos++);
+		var builder = Uid.builder();
+		if (0 != (flags & HAS_ID)) {
+			long id = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = buffer.getByte(pos++);
+				id |= (long) (b & 0x7f) << shift;
+				shift += 7;
+			} while (b < 0);
+			builder.withId(id);
+		}
+		if (0 != (flags & HAS_PREFIX)) {
+			int length = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = buffer.getByte(pos++);
+				length |= (b & 0x7f) << shift;
+				shift += 7;
+			} while (b < 0);
+			String prefix = UidPrefixPool.SHARED.internAscii(buffer, pos, pos + length);
+			builder.withPrefix(null != prefix ? prefix : buffer.getString(pos, pos + length, "UTF-8"));
+		}
+		return builder.build();
+	}
+
+	@Override
+	public Uid transform(Uid uid) {
+		return uid;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public byte systemCodecID() {
+		return -1;
+	}
+
+	private static void appendVarLong(Buffer buffer, long value) {
+		while ((value & ~0x7fL) != 0) {
+			buffer.appendByte((byte) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		buffer.appendByte((byte) value);
+	}
+}
@@ -0,0 +1,150 @@
+package com.inqwise.opinion.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.HttpException;
+
+/**
+ * Parses {@link Uid} path and query parameters once per request and stores them in the
+ * {@link RoutingContext}, where later handlers read them with {@link #uid(RoutingContext, String)}.
+ *
+ * <p>Tokens are parsed with {@link UidFormat#tryParse(CharSequence)}. A missing or malformed id fails
+ * the context with a pre-built 400 {@link HttpException}, which {@link HttpErrorResponseHandler}
+ * reports as {@code ArgumentWrong}; business handlers never see an invalid id.
+ *
+ * <p>The once-per-request key includes the parameter names, so handlers for different parameters can
+ * be chained on one request. A handler that runs again for the same request, for example when it is
+ * mounted on several matching routes, only calls {@code next()}.
+ */
+public class UidParamHandler extends OncePerRoutingContextHandler {
+	private static final String KEY_PREFIX = "uid.";
+
+	private final UidFormat format;
+	private final Param[] params;
+
+	private UidParamHandler(Builder builder) {
+		super(String.join(",", builder.names()));
+		this.format = builder.format;
+		this.params = builder.params.toArray(new Param[0]);
+	}
+
+	/**
+	 * Returns the uid parsed from parameter {@code name}, or {@code null} if it is optional and absent.
+	 */
+	public static Uid uid(RoutingContext context, String name) {
+		return context.get(KEY_PREFIX + name);
+	}
+
+	/**
+	 * handleOnce.
+	 */
+	@Override
+	public void handleOnce(RoutingContext context) {
+		for (Param param : params) {
+			String token = param.query ? firstQueryParam(context, param.name) : context.pathParam(param.name);
+			if (null == token) {
+				if (param.required) {
+					context.fail(param.missing);
+					return;
+				}
+				continue;
+			}
+			Optional<Uid> uid = format.tryParse(token);
+			if (uid.isEmpty()) {
+				context.fail(param.invalid);
+				return;
+			}
+			context.put(param.key, uid.get());
+		}
+		context.next();
+	}
+
+	@Override
+	protected void handleSeen(RoutingContext context) {
+		context.next();
+	}
+
+	private static String firstQueryParam(RoutingContext context, String name) {
+		List<String> values = context.queryParam(name);
+		return null == values || values.isEmpty() ? null : values.get(0);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	private static final class Param {
+		private final String name;
+		private final String key;
+		private final boolean query;
+		private final boolean required;
+		// no stack trace is captured, so one instance per parameter is shared by all requests
+		private final HttpException missing;
+		private final HttpException invalid;
+
+		private Param(String name, boolean query, boolean required) {
+			this.name = name;
+			this.key = KEY_PREFIX + name;
+			this.query = query;
+			this.required = required;
+			this.missing = new HttpException(400, "missing uid parameter '" + name + "'");
+			this.invalid = new HttpException(400, "invalid uid parameter '" + name + "'");
+		}
+	}
+
+	public static final class Builder {
+		private final List<Param> params = new ArrayList<>();
+		private UidFormat format = UidFormat.DEFAULT;
+
+		private Builder() {
+		}
+
+		/**
+		 * Parses the required path parameter {@code name}.
+		 */
+		public Builder withPathParam(String name) {
+			return add(name, false, true);
+		}
+
+		/**
+		 * Parses the required query parameter {@code name}.
+		 */
+		public Builder withQueryParam(String name) {
+			return add(name, true, true);
+		}
+
+		/**
+		 * Parses the query parameter {@code name} when it is present.
+		 */
+		public Builder withOptionalQueryParam(String name) {
+			return add(name, true, false);
+		}
+
+		public Builder withFormat(UidFormat format) {
+			this.format = Objects.requireNonNull(format, "format");
+			return this;
+		}
+
+		public UidParamHandler build() {
+			Preconditions.checkState(!params.isEmpty(), "no parameters configured");
+			return new UidParamHandler(this);
+		}
+
+		private Builder add(String name, boolean query, boolean required) {
+			Objects.requireNonNull(name, "name");
+			Preconditions.checkArgument(!names().contains(name), "parameter '%s' already configured", name);
+			params.add(new Param(name, query, required));
+			return this;
+		}
+
+		private List<String> names() {
+			return params.stream().map(param -> param.name).toList();
+		}
+	}
+}
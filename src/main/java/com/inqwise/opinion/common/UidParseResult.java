@@ -0,0 +1,62 @@
+package com.inqwise.opinion.common;
+
+import java.util.Arrays;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Result of {@link UidFormat#parseAll(java.util.List, java.util.concurrent.Executor)}: the uids of the
+ * valid tokens in input order, and the input positions of the invalid ones in ascending order.
+ */
+public final class UidParseResult {
+	private final UidArray uids;
+	private final int[] errorPositions;
+	private final int inputSize;
+
+	UidParseResult(UidArray uids, int[] errorPositions, int inputSize) {
+		this.uids = uids;
+		this.errorPositions = errorPositions;
+		this.inputSize = inputSize;
+	}
+
+	/**
+	 * Returns the uids of the valid tokens, in input order.
+	 */
+	public UidArray getUids() {
+		return uids;
+	}
+
+	/**
+	 * Returns the positions of the invalid tokens in the input, in ascending order.
+	 */
+	public int[] getErrorPositions() {
+		return errorPositions.clone();
+	}
+
+	public int getErrorCount() {
+		return errorPositions.length;
+	}
+
+	public boolean hasErrors() {
+		return errorPositions.length > 0;
+	}
+
+	/**
+	 * Returns whether the token at {@code position} of the input was invalid.
+	 */
+	public boolean isError(int position) {
+		return Arrays.binarySearch(errorPositions, position) >= 0;
+	}
+
+	public int getInputSize() {
+		return inputSize;
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this)
+				.add("inputSize", inputSize)
+				.add("errorCount", errorPositions.length)
+				.toString();
+	}
+}
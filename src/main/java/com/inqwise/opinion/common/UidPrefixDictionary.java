@@ -0,0 +1,69 @@
+package com.inqwise.opinion.common;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns small int codes to {@link Uid} prefixes so that collections such as {@link UidArray}
+ * can store a prefix per element in four bytes. Codes are dense, start at 0 and never change.
+ *
+ * <p>A dictionary can be shared between collections and threads. Lookups of known prefixes are
+ * lock-free; registering a new prefix takes a lock.
+ */
+public final class UidPrefixDictionary {
+	private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+	private volatile String[] prefixes = new String[16];
+	private volatile int size;
+
+	/**
+	 * Returns the code of {@code prefix}, registering it on first use.
+	 */
+	public int codeOf(String prefix) {
+		Integer code = codes.get(Objects.requireNonNull(prefix, "prefix"));
+		return null != code ? code : register(prefix);
+	}
+
+	/**
+	 * Returns the code of {@code prefix}, or -1 if it has not been registered.
+	 */
+	public int lookup(String prefix) {
+		Integer code = codes.get(Objects.requireNonNull(prefix, "prefix"));
+		return null != code ? code : -1;
+	}
+
+	/**
+	 * Returns the prefix registered under {@code code}.
+	 *
+	 * @throws IndexOutOfBoundsException if no prefix has that code
+	 */
+	public String prefixOf(int code) {
+		Objects.checkIndex(code, size);
+		return prefixes[code];
+	}
+
+	/**
+	 * Returns the number of registered prefixes.
+	 */
+	public int size() {
+		return size;
+	}
+
+	private synchronized int register(String prefix) {
+		Integer existing = codes.get(prefix);
+		if (null != existing) {
+			return existing;
+		}
+		int code = size;
+		String[] current = prefixes;
+		if (code == current.length) {
+			current = Arrays.copyOf(current, code << 1);
+		}
+		current[code] = prefix;
+		// publish the array before the size and the map entry, so readers never see a code without its prefix
+		prefixes = current;
+		size = code + 1;
+		codes.put(prefix, code);
+		return code;
+	}
+}
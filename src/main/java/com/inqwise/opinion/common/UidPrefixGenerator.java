@@ -1,7 +1,17 @@
 package com.inqwise.opinion.common;
 
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 import com.google.common.base.Preconditions;
 
@@ -11,12 +21,20 @@ import com.google.common.base.Preconditions;
  * <p>The generated strings are designed to be:
  * <ul>
  *   <li>Readable and pronounceable (alternating consonants and vowels)</li>
- *   <li>Resistant to accidental profanity</li>
+ *   <li>Resistant to accidental profanity, given a {@link Builder#blocklist(Collection) blocklist}</li>
  *   <li>Unambiguous when read aloud (digits exclude 0,1)</li>
  * </ul>
  *
  * <p>Typical output example: {@code kapev7moba} or with prefix: {@code ac_tobira3}
  *
+ * <p>Randomness comes from a {@link RandomSource}. The default draws from one shared {@link SecureRandom},
+ * which serializes concurrent callers; {@link RandomSource#threadLocal()} and
+ * {@link RandomSource#threadLocalDrbg(int)} give every thread its own generator.
+ *
+ * <p>A blocklist is compiled into an Aho-Corasick automaton that is stepped with every generated character.
+ * A character that would complete a blocked word is redrawn on the spot from the same alphabet, so no
+ * prefix is thrown away; {@link #getRedrawCount()} reports how often that happened.
+ *
  * <p>This class is thread-safe.
  */
 public final class UidPrefixGenerator {
@@ -27,61 +45,269 @@ public final class UidPrefixGenerator {
 	private static final int DIGIT_PROBABILITY = 5; // ~20%
 	private static final char RESERVED_CHAR = '-';
 
+	// Even positions as one uniform symbol: the first 1/DIGIT_PROBABILITY of the range are digits, the rest
+	// consonants, each repeated evenly. This keeps the digit and consonant odds of drawing them separately.
+	private static final char[] EVEN_SYMBOLS = evenSymbols();
+	// largest product of radices drawn from one 32-bit sample
+	private static final long MAX_GROUP_BOUND = 1L << 32;
+
 	private static final SecureRandom RND = new SecureRandom();
 
 	private final int size;
 	private final boolean preventFirstCharDigit;
 	private final String startsWith;
+	private final RandomSource randomSource;
+	// symbols of each generated position, indexed from the end of startsWith
+	private final char[][] alphabets;
+	// positions are drawn in groups: one bounded sample per group, split into digits of mixed radix
+	private final int[] groupEnds;
+	private final long[] groupBounds;
+	private final long[] groupThresholds;
+	private final UidPrefixGuard guard;
+	// null without a blocklist
+	private final BlocklistAutomaton blocklist;
+	private final int blocklistStart;
+	private final LongAdder redraws = new LongAdder();
+	private final double capacity;
+	private final double effectiveCapacity;
 
 	private UidPrefixGenerator(Builder builder) {
 		this.size = builder.size;
 		this.preventFirstCharDigit = builder.preventFirstCharDigit;
-		this.startsWith = builder.startsWith;
+		this.startsWith = null == builder.startsWith ? "" : builder.startsWith;
+		this.randomSource = builder.randomSource;
+		this.guard = builder.guard;
+		this.blocklist = builder.blocklist;
+
+		int startIndex = startsWith.length();
+		alphabets = new char[size - startIndex][];
+		for (int i = 0; i < alphabets.length; i++) {
+			int absolutePosition = startIndex + i;
+			if (absolutePosition % 2 != 0) {
+				// Odd positions: vowels
+				alphabets[i] = VOWELS;
+			} else if (preventFirstCharDigit && absolutePosition == 0) {
+				alphabets[i] = CONSONANTS;
+			} else {
+				// Even positions: consonants or digits
+				alphabets[i] = EVEN_SYMBOLS;
+			}
+		}
+
+		var ends = new int[alphabets.length];
+		var bounds = new long[alphabets.length];
+		int groups = 0;
+		long bound = 1;
+		for (int i = 0; i < alphabets.length; i++) {
+			if (bound * alphabets[i].length > MAX_GROUP_BOUND) {
+				bounds[groups++] = bound;
+				bound = 1;
+			}
+			bound *= alphabets[i].length;
+			ends[groups] = i + 1;
+		}
+		bounds[groups++] = bound;
+		this.groupEnds = Arrays.copyOf(ends, groups);
+		this.groupBounds = Arrays.copyOf(bounds, groups);
+		this.groupThresholds = new long[groups];
+		for (int g = 0; g < groups; g++) {
+			groupThresholds[g] = (MAX_GROUP_BOUND - groupBounds[g]) % groupBounds[g];
+		}
+
+		double distinct = 1;
+		double effective = 1;
+		for (char[] alphabet : alphabets) {
+			int[] counts = new int[128];
+			int symbols = 0;
+			for (char c : alphabet) {
+				if (0 == counts[c]++) {
+					symbols++;
+				}
+			}
+			// the chance that two draws agree on this position is the sum of the squared symbol probabilities
+			double agreement = 0;
+			for (int count : counts) {
+				agreement += (double) count * count;
+			}
+			distinct *= symbols;
+			effective *= (double) alphabet.length * alphabet.length / agreement;
+		}
+		this.capacity = distinct;
+		this.effectiveCapacity = effective;
+
+		if (null == blocklist) {
+			this.blocklistStart = BlocklistAutomaton.START;
+		} else {
+			Preconditions.checkArgument(!blocklist.matches(startsWith), "startsWith contains a blocked word");
+			this.blocklistStart = blocklist.run(startsWith);
+			checkNoDeadEnd(blocklist, alphabets);
+		}
+	}
+
+	/**
+	 * Rejects blocklists under which some state leaves no allowed symbol for a position, which would make
+	 * redrawing loop forever. Every non-blocked state is checked, including ones generation cannot reach.
+	 */
+	private static void checkNoDeadEnd(BlocklistAutomaton blocklist, char[][] alphabets) {
+		Set<char[]> distinctAlphabets = Collections.newSetFromMap(new IdentityHashMap<>());
+		distinctAlphabets.addAll(Arrays.asList(alphabets));
+		for (int state = 0; state < blocklist.stateCount(); state++) {
+			if (blocklist.isBlocked(state)) {
+				continue;
+			}
+			for (char[] alphabet : distinctAlphabets) {
+				boolean allowed = false;
+				for (int i = 0; i < alphabet.length && !allowed; i++) {
+					allowed = !blocklist.isBlocked(blocklist.step(state, alphabet[i]));
+				}
+				Preconditions.checkArgument(allowed, "blocklist blocks every character of [%s]", new String(alphabet));
+			}
+		}
 	}
 
 	/**
 	 * Generates a new UID prefix.
 	 *
+	 * <p>With a {@link Builder#uniquenessGuard(UidPrefixGuard) uniqueness guard}, prefixes already issued
+	 * in the namespace of this generator are drawn again.
+	 *
+	 * <p>Instead of one draw per character, consecutive positions are combined into a mixed-radix number
+	 * below 2^32 that is drawn with Lemire's multiply-shift method from half of a 64-bit word. A 10-character
+	 * prefix needs a single {@code nextLong()} call, apart from the rare rejected sample.
+	 *
 	 * @return generated prefix string
+	 * @throws IllegalStateException if the guard rejected {@link UidPrefixGuard#getMaxAttempts()} prefixes in a row
 	 */
 	public String generate() {
-		StringBuilder sb = new StringBuilder(size);
-		
-		// Add the prefix if specified
-		if (startsWith != null && !startsWith.isEmpty()) {
-			sb.append(startsWith);
+		RandomGenerator rnd = randomSource.current();
+		if (null == guard) {
+			return draw(rnd);
 		}
-		
-		int startIndex = sb.length();
-		int remainingSize = size - startIndex;
+		for (int attempt = 0; attempt < guard.getMaxAttempts(); attempt++) {
+			String prefix = draw(rnd);
+			if (guard.claim(startsWith, prefix)) {
+				return prefix;
+			}
+		}
+		throw new IllegalStateException(String.format(
+			"no unique prefix after %s attempts, %s of %.0f prefixes issued in namespace '%s'",
+			guard.getMaxAttempts(), guard.size(startsWith), capacity, startsWith
+		));
+	}
 
-		for (int i = 0; i < remainingSize; i++) {
-			int absolutePosition = startIndex + i;
-			
-			if (absolutePosition % 2 == 0) {
-				// Even positions: consonants or digits
-				boolean shouldUseDigit = RND.nextInt(DIGIT_PROBABILITY) == 0;
-				
-				// Prevent first character from being a digit if configured
-				if (preventFirstCharDigit && absolutePosition == 0 && shouldUseDigit) {
-					shouldUseDigit = false;
+	/**
+	 * Returns how many characters were redrawn because they completed a blocked word.
+	 */
+	public long getRedrawCount() {
+		return redraws.sum();
+	}
+
+	/**
+	 * Returns the namespace of the uniqueness guard, the {@code startsWith} prefix or an empty string.
+	 */
+	public String getNamespace() {
+		return startsWith;
+	}
+
+	/**
+	 * Returns the number of distinct prefixes this generator can produce, ignoring the blocklist.
+	 */
+	public double getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of equally likely prefixes that would collide as often as this generator does.
+	 * Consonants are drawn more often than digits, so this is below {@link #getCapacity()}; about 27.03
+	 * per even position and 5 per odd position.
+	 */
+	public double getEffectiveCapacity() {
+		return effectiveCapacity;
+	}
+
+	/**
+	 * Returns the chance that a new prefix equals one of {@code issued} earlier prefixes of this generator,
+	 * which is the chance that a guarded {@link #generate()} has to draw again.
+	 */
+	public double collisionProbability(long issued) {
+		Preconditions.checkArgument(issued >= 0, "issued must not be negative");
+		return Math.min(1.0, issued / effectiveCapacity);
+	}
+
+	/**
+	 * Returns the chance that the next prefix collides with one recorded by the guard, or 0 without a guard.
+	 */
+	public double getCollisionProbability() {
+		return collisionProbability(getIssuedCount());
+	}
+
+	/**
+	 * Returns the number of prefixes recorded by the guard in this namespace, or 0 without a guard.
+	 */
+	public long getIssuedCount() {
+		return null == guard ? 0 : guard.size(startsWith);
+	}
+
+	/**
+	 * Returns the number of prefixes that can still be issued in this namespace.
+	 */
+	public double getRemainingCapacity() {
+		return Math.max(0, capacity - getIssuedCount());
+	}
+
+	private String draw(RandomGenerator rnd) {
+		char[] chars = new char[size];
+		int startIndex = startsWith.length();
+		startsWith.getChars(0, startIndex, chars, 0);
+
+		long bits = 0;
+		int samples = 0;
+		int position = 0;
+		int state = blocklistStart;
+		for (int g = 0; g < groupBounds.length; g++) {
+			long bound = groupBounds[g];
+			long product;
+			do {
+				if (samples == 0) {
+					bits = rnd.nextLong();
+					samples = 2;
 				}
-				
-				if (shouldUseDigit) {
-					sb.append(randomChar(DIGITS));
-				} else {
-					sb.append(randomChar(CONSONANTS));
+				product = (bits & 0xffffffffL) * bound;
+				bits >>>= 32;
+				samples--;
+				// reject the low products that would over-represent some values
+			} while ((product & 0xffffffffL) < groupThresholds[g]);
+
+			long value = product >>> 32;
+			for (; position < groupEnds[g]; position++) {
+				char[] alphabet = alphabets[position];
+				char c = alphabet[(int) (value % alphabet.length)];
+				value /= alphabet.length;
+				if (null != blocklist) {
+					int next = blocklist.step(state, c);
+					while (blocklist.isBlocked(next)) {
+						redraws.increment();
+						c = alphabet[rnd.nextInt(alphabet.length)];
+						next = blocklist.step(state, c);
+					}
+					state = next;
 				}
-			} else {
-				// Odd positions: vowels
-				sb.append(randomChar(VOWELS));
+				chars[startIndex + position] = c;
 			}
 		}
-		return sb.toString();
+		return new String(chars);
 	}
 
-	private static char randomChar(char[] source) {
-		return source[RND.nextInt(source.length)];
+	private static char[] evenSymbols() {
+		int digitSymbols = DIGITS.length;
+		while (digitSymbols * (DIGIT_PROBABILITY - 1) % CONSONANTS.length != 0) {
+			digitSymbols += DIGITS.length;
+		}
+		var symbols = new char[digitSymbols * DIGIT_PROBABILITY];
+		for (int i = 0; i < symbols.length; i++) {
+			symbols[i] = i < digitSymbols ? DIGITS[i % DIGITS.length] : CONSONANTS[(i - digitSymbols) % CONSONANTS.length];
+		}
+		return symbols;
 	}
 
 	/**
@@ -105,6 +331,78 @@ public final class UidPrefixGenerator {
 	public static final UidPrefixGenerator SIZE_4 =
 			builder().size(4).build();
 
+	/**
+	 * Strategy that supplies the random generator used by one {@link #generate()} call.
+	 * Implementations must be thread-safe; the returned generator is only used by the calling thread.
+	 */
+	@FunctionalInterface
+	public interface RandomSource {
+
+		/**
+		 * Returns the generator for the calling thread.
+		 */
+		RandomGenerator current();
+
+		/**
+		 * One {@link SecureRandom} shared by all threads. This is the default; its draws are synchronized,
+		 * so it becomes a bottleneck under concurrent generation.
+		 */
+		static RandomSource shared() {
+			return () -> RND;
+		}
+
+		/**
+		 * A fast {@code L64X128MixRandom} per thread, seeded from {@link SecureRandom}. Threads never contend,
+		 * but the output of one generator is predictable to anyone who learns its state, so use it only where
+		 * prefixes need not be unguessable. Each new thread pays for one seed, so prefer pooled threads.
+		 */
+		static RandomSource threadLocal() {
+			ThreadLocal<RandomGenerator> generators = ThreadLocal.withInitial(() -> {
+				byte[] seed = new byte[32];
+				RND.nextBytes(seed);
+				return RandomGeneratorFactory.of("L64X128MixRandom").create(seed);
+			});
+			return generators::get;
+		}
+
+		/**
+		 * A {@code DRBG} {@link SecureRandom} per thread, reseeded from the system entropy source after every
+		 * {@code reseedInterval} calls to {@link #current()}. Threads never contend and the output stays
+		 * cryptographically strong.
+		 *
+		 * @param reseedInterval number of prefixes generated between reseeds, must be positive
+		 */
+		static RandomSource threadLocalDrbg(int reseedInterval) {
+			Preconditions.checkArgument(reseedInterval > 0, "reseedInterval must be positive");
+			ThreadLocal<ReseedingDrbg> generators = ThreadLocal.withInitial(ReseedingDrbg::new);
+			return () -> generators.get().next(reseedInterval);
+		}
+	}
+
+	private static final class ReseedingDrbg {
+		private final SecureRandom drbg;
+		private int uses;
+
+		private ReseedingDrbg() {
+			try {
+				this.drbg = SecureRandom.getInstance(
+					"DRBG",
+					DrbgParameters.instantiation(256, DrbgParameters.Capability.RESEED_ONLY, null)
+				);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("DRBG is not available", e);
+			}
+		}
+
+		private SecureRandom next(int reseedInterval) {
+			if (++uses >= reseedInterval) {
+				uses = 0;
+				drbg.reseed();
+			}
+			return drbg;
+		}
+	}
+
 	/**
 	 * Builder for {@link UidPrefixGenerator}.
 	 */
@@ -113,6 +411,9 @@ public final class UidPrefixGenerator {
 		private int size = 10;
 		private boolean preventFirstCharDigit = false;
 		private String startsWith = null;
+		private RandomSource randomSource = RandomSource.shared();
+		private UidPrefixGuard guard;
+		private BlocklistAutomaton blocklist;
 
 		private Builder() {
 		}
@@ -159,6 +460,40 @@ public final class UidPrefixGenerator {
 			return this;
 		}
 
+		/**
+		 * Sets the source of randomness, {@link RandomSource#shared()} by default.
+		 *
+		 * @param randomSource randomness strategy
+		 */
+		public Builder randomSource(RandomSource randomSource) {
+			this.randomSource = Objects.requireNonNull(randomSource, "randomSource");
+			return this;
+		}
+
+		/**
+		 * Regenerates prefixes that {@code guard} has already recorded in the {@link #startsWith(String)} namespace.
+		 * Generators sharing a guard and a namespace never issue the same prefix twice.
+		 *
+		 * @param guard issued prefixes, or {@code null} to skip the check
+		 */
+		public Builder uniquenessGuard(UidPrefixGuard guard) {
+			this.guard = guard;
+			return this;
+		}
+
+		/**
+		 * Sets words that must never appear in a generated prefix, matched case-insensitively anywhere in it.
+		 * The words are compiled into an automaton once, here.
+		 *
+		 * @param words ASCII words, or {@code null} or empty for no blocklist
+		 * @throws IllegalArgumentException if a word is empty or not ASCII; {@link #build()} also rejects
+		 * a blocklist that blocks the {@code startsWith} prefix or every character of a position
+		 */
+		public Builder blocklist(Collection<String> words) {
+			this.blocklist = null == words || words.isEmpty() ? null : BlocklistAutomaton.compile(words);
+			return this;
+		}
+
 		/**
 		 * Builds an immutable {@link UidPrefixGenerator}.
 		 */
@@ -0,0 +1,104 @@
+package com.inqwise.opinion.common;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * In-process record of issued {@link UidPrefixGenerator} prefixes, so that a generator configured with
+ * {@link UidPrefixGenerator.Builder#uniquenessGuard(UidPrefixGuard)} regenerates a prefix that was already
+ * issued instead of leaving the collision to a failed database insert.
+ *
+ * <p>Prefixes are kept per namespace, the {@code startsWith} of the generator, in exact concurrent sets:
+ * a Bloom filter would save memory but its false positives would permanently remove free prefixes from
+ * small spaces such as {@link UidPrefixGenerator#SIZE_4}. Existing prefixes are loaded at startup with
+ * {@link #preload(String, Iterable)}.
+ *
+ * <p>The guard only sees prefixes issued or loaded in this process; other instances writing to the same
+ * table must still handle duplicate keys. This class is thread-safe.
+ */
+public final class UidPrefixGuard {
+	private final ConcurrentHashMap<String, Set<String>> namespaces = new ConcurrentHashMap<>();
+	private final int maxAttempts;
+
+	public UidPrefixGuard() {
+		this(32);
+	}
+
+	/**
+	 * @param maxAttempts number of prefixes a generator draws before giving up on a saturated namespace
+	 */
+	public UidPrefixGuard(int maxAttempts) {
+		Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+		this.maxAttempts = maxAttempts;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Records {@code prefix} as issued.
+	 *
+	 * @return false if it was already issued in {@code namespace}
+	 */
+	public boolean claim(String namespace, String prefix) {
+		Objects.requireNonNull(prefix, "prefix");
+		return prefixes(namespace).add(prefix);
+	}
+
+	/**
+	 * Returns a prefix to the free space, for example when the entity that used it was never stored.
+	 */
+	public void release(String namespace, String prefix) {
+		Set<String> issued = namespaces.get(Objects.requireNonNull(namespace, "namespace"));
+		if (null != issued) {
+			issued.remove(prefix);
+		}
+	}
+
+	/**
+	 * Records existing prefixes, typically read from the database at startup.
+	 *
+	 * @return the number of prefixes that were not known yet
+	 */
+	public int preload(String namespace, Iterable<String> prefixes) {
+		Objects.requireNonNull(prefixes, "prefixes");
+		Set<String> issued = prefixes(namespace);
+		int added = 0;
+		for (String prefix : prefixes) {
+			if (issued.add(prefix)) {
+				added++;
+			}
+		}
+		return added;
+	}
+
+	public boolean contains(String namespace, String prefix) {
+		Set<String> issued = namespaces.get(Objects.requireNonNull(namespace, "namespace"));
+		return null != issued && issued.contains(prefix);
+	}
+
+	/**
+	 * Returns the number of prefixes issued or loaded in {@code namespace}.
+	 */
+	public int size(String namespace) {
+		Set<String> issued = namespaces.get(Objects.requireNonNull(namespace, "namespace"));
+		return null == issued ? 0 : issued.size();
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this)
+				.add("namespaces", namespaces.size())
+				.add("maxAttempts", maxAttempts)
+				.toString();
+	}
+
+	private Set<String> prefixes(String namespace) {
+		return namespaces.computeIfAbsent(Objects.requireNonNull(namespace, "namespace"), n -> ConcurrentHashMap.newKeySet());
+	}
+}
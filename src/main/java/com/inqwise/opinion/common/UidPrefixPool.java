@@ -0,0 +1,165 @@
+package com.inqwise.opinion.common;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Bounded, lock-free intern table for the prefixes of parsed {@link Uid} tokens.
+ *
+ * <p>A system has only a few hundred distinct prefixes, so {@link UidFormat} looks the prefix up by
+ * the hash of its char range and returns the pooled {@link String} instead of allocating one per token.
+ * The table has a fixed number of slots; a prefix is looked up in two neighbouring slots and a miss
+ * allocates the prefix and overwrites one of them. Unknown or evicted prefixes therefore cost one
+ * allocation, as without the pool, and a racing overwrite only loses a cache entry.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class UidPrefixPool {
+
+	/**
+	 * Pool shared by formats that do not configure their own.
+	 */
+	static final UidPrefixPool SHARED = new UidPrefixPool(1024, 64);
+
+	private final AtomicReferenceArray<String> slots;
+	private final int mask;
+	private final int maxPrefixLength;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param capacity number of slots, rounded up to a power of two
+	 * @param maxPrefixLength longer prefixes are never pooled
+	 */
+	public UidPrefixPool(int capacity, int maxPrefixLength) {
+		Preconditions.checkArgument(capacity > 0 && capacity <= 1 << 20, "capacity must be between 1 and 2^20");
+		Preconditions.checkArgument(maxPrefixLength >= 0, "maxPrefixLength must not be negative");
+		int slotCount = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+		this.slots = new AtomicReferenceArray<>(slotCount);
+		this.mask = slotCount - 1;
+		this.maxPrefixLength = maxPrefixLength;
+	}
+
+	/**
+	 * Returns the pooled string equal to {@code chars[from, to)}, pooling it on a miss.
+	 */
+	public String intern(CharSequence chars, int from, int to) {
+		Objects.checkFromToIndex(from, to, chars.length());
+		int length = to - from;
+		if (length > maxPrefixLength) {
+			misses.increment();
+			return chars.subSequence(from, to).toString();
+		}
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + chars.charAt(i);
+		}
+		int index = (hash ^ (hash >>> 16)) & mask;
+		int neighbour = (index + 1) & mask;
+
+		String first = slots.getAcquire(index);
+		if (null != first && contentEquals(first, chars, from, to)) {
+			hits.increment();
+			return first;
+		}
+		String second = slots.getAcquire(neighbour);
+		if (null != second && contentEquals(second, chars, from, to)) {
+			hits.increment();
+			return second;
+		}
+
+		misses.increment();
+		String prefix = chars.subSequence(from, to).toString();
+		// fill an empty slot, otherwise evict from the home slot
+		slots.setRelease(null != first && null == second ? neighbour : index, prefix);
+		return prefix;
+	}
+
+	/**
+	 * Returns the pooled string equal to the ASCII bytes {@code buffer[from, to)}, pooling it on a miss,
+	 * so that a hit allocates nothing. Returns null if the range contains a non-ASCII byte.
+	 */
+	String internAscii(Buffer buffer, int from, int to) {
+		Objects.checkFromToIndex(from, to, buffer.length());
+		// ASCII bytes equal their chars, so the hash matches that of intern(CharSequence, int, int)
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			byte b = buffer.getByte(i);
+			if (b < 0) {
+				return null;
+			}
+			hash = 31 * hash + b;
+		}
+		if (to - from > maxPrefixLength) {
+			misses.increment();
+			return buffer.getString(from, to, "US-ASCII");
+		}
+		int index = (hash ^ (hash >>> 16)) & mask;
+		int neighbour = (index + 1) & mask;
+
+		String first = slots.getAcquire(index);
+		if (null != first && contentEquals(first, buffer, from, to)) {
+			hits.increment();
+			return first;
+		}
+		String second = slots.getAcquire(neighbour);
+		if (null != second && contentEquals(second, buffer, from, to)) {
+			hits.increment();
+			return second;
+		}
+
+		misses.increment();
+		String prefix = buffer.getString(from, to, "US-ASCII");
+		slots.setRelease(null != first && null == second ? neighbour : index, prefix);
+		return prefix;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this)
+				.add("capacity", slots.length())
+				.add("hits", getHitCount())
+				.add("misses", getMissCount())
+				.toString();
+	}
+
+	private static boolean contentEquals(String candidate, CharSequence chars, int from, int to) {
+		int length = to - from;
+		if (candidate.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (candidate.charAt(i) != chars.charAt(from + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean contentEquals(String candidate, Buffer buffer, int from, int to) {
+		int length = to - from;
+		if (candidate.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (candidate.charAt(i) != buffer.getByte(from + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
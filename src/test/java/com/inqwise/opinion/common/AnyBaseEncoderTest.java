@@ -1,10 +1,16 @@
 package com.inqwise.opinion.common;
 
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.junit5.VertxExtension;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +31,402 @@ class AnyBaseEncoderTest {
 		assertEquals(BigInteger.valueOf(123456789L), encoder.decode(encoder.encode(BigInteger.valueOf(123456789L))));
 	}
 
+	@Test
+	void encodeLong_matchesBigIntegerEncoding() {
+		AnyBaseEncoder[] encoders = {
+			AnyBaseEncoder.BASE_10,
+			AnyBaseEncoder.BASE_16,
+			AnyBaseEncoder.BASE_36,
+			AnyBaseEncoder.BASE_52,
+			AnyBaseEncoder.BASE_62,
+			AnyBaseEncoder.builder().alphabet("01").build()
+		};
+		long[] values = { 0L, 1L, 9L, 51L, 52L, 53L, 123456789L, Integer.MAX_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE };
+
+		for (AnyBaseEncoder encoder : encoders) {
+			for (long value : values) {
+				assertEquals(encoder.encode(BigInteger.valueOf(value)), encoder.encode(value),
+					"base " + encoder.getBase() + ", value " + value);
+			}
+		}
+	}
+
+	@Test
+	void encodeLong_withNegativeValue_throwsException() {
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_52.encode(-1L)
+		);
+	}
+
+	@Test
+	void decodeToLong_matchesBigIntegerDecoding() {
+		AnyBaseEncoder encoder = AnyBaseEncoder.BASE_52;
+		for (long value : new long[] { 0L, 1L, 52L, 123456789L, Long.MAX_VALUE }) {
+			String encoded = encoder.encode(value);
+			assertEquals(value, encoder.decodeToLong(encoded));
+			assertEquals(encoder.decode(encoded).longValueExact(), encoder.decodeToLong(encoded));
+		}
+		assertEquals(7L, AnyBaseEncoder.BASE_10.decodeToLong("0007"));
+	}
+
+	@Test
+	void decodeToLong_withOverflow_throwsArithmeticException() {
+		String beyondLong = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE).toString();
+		assertThrows(ArithmeticException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeToLong(beyondLong)
+		);
+		assertThrows(ArithmeticException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeToLong("99999999999999999999999")
+		);
+	}
+
+	@Test
+	void decodeToLong_withOverflowAndInvalidCharacter_reportsInvalidCharacter() {
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeToLong("99999999999999999999999x")
+		);
+	}
+
+	@Test
+	void decodeToLong_withEmptyValue_throwsException() {
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_52.decodeToLong("")
+		);
+	}
+
+	@Test
+	void encodeTo_writesSameDigitsAsEncode() throws Exception {
+		AnyBaseEncoder encoder = AnyBaseEncoder.BASE_62;
+		for (long value : new long[] { 0L, 61L, 62L, 987654321L, Long.MAX_VALUE }) {
+			String expected = encoder.encode(value);
+
+			StringBuilder sb = new StringBuilder("x");
+			assertEquals(expected.length(), encoder.encodeTo(value, sb));
+			assertEquals("x" + expected, sb.toString());
+
+			StringBuilder appendable = new StringBuilder();
+			assertEquals(expected.length(), encoder.encodeTo(value, (Appendable) appendable));
+			assertEquals(expected, appendable.toString());
+
+			char[] dst = new char[expected.length() + 2];
+			assertEquals(expected.length(), encoder.encodeTo(value, dst, 1));
+			assertEquals(expected, new String(dst, 1, expected.length()));
+		}
+	}
+
+	@Test
+	void encodeTo_withTooSmallArray_throwsException() {
+		assertThrows(IndexOutOfBoundsException.class, () ->
+			AnyBaseEncoder.BASE_10.encodeTo(12345L, new char[4], 0)
+		);
+	}
+
+	@Test
+	void decodeToLong_withRange_decodesOnlyRange() {
+		String encoded = AnyBaseEncoder.BASE_52.encode(123456789L);
+		String wrapped = "pre-" + encoded + "!";
+
+		assertEquals(123456789L, AnyBaseEncoder.BASE_52.decodeToLong(wrapped, 4, 4 + encoded.length()));
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_52.decodeToLong(wrapped, 4, 4)
+		);
+		assertThrows(IndexOutOfBoundsException.class, () ->
+			AnyBaseEncoder.BASE_52.decodeToLong(wrapped, 4, wrapped.length() + 1)
+		);
+	}
+
+	@Test
+	void encodeTo_bytesAndBuffer_writeAsciiDigits() {
+		AnyBaseEncoder encoder = AnyBaseEncoder.BASE_52;
+		for (long value : new long[] { 0L, 51L, 52L, 123456789L, Long.MAX_VALUE }) {
+			byte[] expected = encoder.encode(value).getBytes(StandardCharsets.US_ASCII);
+
+			byte[] dst = new byte[expected.length + 1];
+			assertEquals(expected.length, encoder.encodeTo(value, dst, 1));
+			assertArrayEquals(expected, Arrays.copyOfRange(dst, 1, dst.length));
+
+			Buffer buffer = Buffer.buffer("id:");
+			assertEquals(expected.length, encoder.encodeTo(value, buffer));
+			assertEquals("id:" + encoder.encode(value), buffer.toString(StandardCharsets.US_ASCII));
+		}
+	}
+
+	@Test
+	void decodeToLong_fromBytesAndBuffer_decodesRange() {
+		String encoded = AnyBaseEncoder.BASE_52.encode(987654321L);
+		byte[] bytes = ("/x/" + encoded).getBytes(StandardCharsets.US_ASCII);
+
+		assertEquals(987654321L, AnyBaseEncoder.BASE_52.decodeToLong(bytes, 3, bytes.length));
+		assertEquals(987654321L, AnyBaseEncoder.BASE_52.decodeToLong(Buffer.buffer(bytes), 3, bytes.length));
+	}
+
+	@Test
+	void decodeToLong_fromBytesWithNonAsciiOrInvalid_throwsException() {
+		byte[] nonAscii = { 'a', (byte) 0xC3, (byte) 0xA9 };
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_52.decodeToLong(nonAscii, 0, nonAscii.length)
+		);
+		byte[] digits = "12a3".getBytes(StandardCharsets.US_ASCII);
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeToLong(Buffer.buffer(digits), 0, digits.length)
+		);
+	}
+
+	@Test
+	void encodeAllAndDecodeAll_roundTrip() {
+		AnyBaseEncoder encoder = AnyBaseEncoder.BASE_36;
+		long[] values = { 0L, 35L, 36L, 123456789L, Long.MAX_VALUE };
+
+		String[] encoded = encoder.encodeAll(values);
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(encoder.encode(values[i]), encoded[i]);
+		}
+		assertArrayEquals(values, encoder.decodeAll(encoded));
+	}
+
+	@Test
+	void encodeAll_packed_writesValuesBackToBack() {
+		AnyBaseEncoder encoder = AnyBaseEncoder.BASE_10;
+		long[] values = { 7L, 42L, 1000L };
+		char[] dst = new char[values.length * encoder.getMaxLongLength()];
+		int[] ends = new int[values.length];
+
+		int written = encoder.encodeAll(values, dst, 0, ends);
+
+		assertEquals(7, written);
+		assertEquals("7421000", new String(dst, 0, written));
+		assertArrayEquals(new int[] { 1, 3, 7 }, ends);
+	}
+
+	@Test
+	void encodeAllAndDecodeAll_withPool_matchesSequential() {
+		AnyBaseEncoder encoder = AnyBaseEncoder.BASE_52;
+		long[] values = new long[20_000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i * 7_919L * 1_000_003L;
+		}
+
+		String[] encoded = encoder.encodeAll(values, ForkJoinPool.commonPool());
+
+		assertArrayEquals(encoder.encodeAll(values), encoded);
+		assertArrayEquals(values, encoder.decodeAll(encoded, ForkJoinPool.commonPool()));
+	}
+
+	@Test
+	void encodeAll_withNegativeValue_throwsException() {
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_52.encodeAll(new long[] { 1L, -1L })
+		);
+	}
+
+	@Test
+	void decodeAll_withInvalidValue_reportsIndex() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeAll(new CharSequence[] { "12", "34", "5x" })
+		);
+		assertTrue(e.getMessage().contains("found at 2"), e.getMessage());
+	}
+
+	@Test
+	void decodeAll_withOverflowingValue_reportsIndex() {
+		ArithmeticException e = assertThrows(ArithmeticException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeAll(new CharSequence[] { "1", "99999999999999999999" })
+		);
+		assertTrue(e.getMessage().contains("found at 1"), e.getMessage());
+	}
+
+	@Test
+	void decodeAll_withPool_reportsIndex() {
+		String[] encoded = AnyBaseEncoder.BASE_10.encodeAll(new long[20_000]);
+		encoded[15_000] = "";
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeAll(encoded, ForkJoinPool.commonPool())
+		);
+		assertTrue(e.getMessage().contains("found at 15000"), e.getMessage());
+	}
+
+	@Test
+	void powerOfTwoBases_matchBigIntegerRadixConversion() {
+		AnyBaseEncoder base2 = AnyBaseEncoder.builder().alphabet("01").build();
+		AnyBaseEncoder base32 = AnyBaseEncoder.builder().alphabet("0123456789abcdefghijklmnopqrstuv").build();
+		BigInteger big = new BigInteger("f0e1d2c3b4a5968778695a4b3c2d1e0ff", 16);
+
+		for (long value : new long[] { 0L, 1L, 15L, 16L, 255L, 123456789L, Long.MAX_VALUE }) {
+			assertEquals(Long.toHexString(value), AnyBaseEncoder.BASE_16.encode(value));
+			assertEquals(Long.toBinaryString(value), base2.encode(value));
+			assertEquals(Long.toString(value, 32), base32.encode(value));
+			assertEquals(value, AnyBaseEncoder.BASE_16.decodeToLong(Long.toHexString(value)));
+			assertEquals(value, base32.decodeToLong(Long.toString(value, 32)));
+		}
+
+		for (BigInteger value : new BigInteger[] { BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(256), big }) {
+			assertEquals(value.toString(16), AnyBaseEncoder.BASE_16.encode(value));
+			assertEquals(value.toString(32), base32.encode(value));
+			assertEquals(value.toString(2), base2.encode(value));
+			assertEquals(value, AnyBaseEncoder.BASE_16.decode(value.toString(16)));
+			assertEquals(value, base32.decode(value.toString(32)));
+			assertEquals(value, base2.decode(value.toString(2)));
+		}
+		assertEquals(BigInteger.valueOf(255), AnyBaseEncoder.BASE_16.decode("00ff"));
+	}
+
+	@Test
+	void powerOfTwoBase_decodeToLong_withOverflow_throwsArithmeticException() {
+		assertThrows(ArithmeticException.class, () ->
+			AnyBaseEncoder.BASE_16.decodeToLong("8000000000000000")
+		);
+		assertEquals(Long.MAX_VALUE, AnyBaseEncoder.BASE_16.decodeToLong("7fffffffffffffff"));
+	}
+
+	@Test
+	void fixedWidth_padsAndPreservesNumericOrder() {
+		AnyBaseEncoder encoder = AnyBaseEncoder.builder()
+			.alphabet("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz")
+			.fixedWidth(true)
+			.build();
+		long[] values = { 0L, 1L, 61L, 62L, 3_843L, 3_844L, 123456789L, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+
+		assertEquals(11, encoder.getMaxLongLength());
+		assertEquals("00000000000", encoder.encode(0L));
+		for (int i = 0; i < values.length; i++) {
+			String encoded = encoder.encode(values[i]);
+			assertEquals(encoder.getMaxLongLength(), encoded.length());
+			assertEquals(values[i], encoder.decodeToLong(encoded));
+			assertEquals(encoded, encoder.encode(BigInteger.valueOf(values[i])));
+			if (i > 0) {
+				assertTrue(encoder.encode(values[i - 1]).compareTo(encoded) < 0, "order broken at " + values[i]);
+			}
+		}
+	}
+
+	@Test
+	void fixedWidth_powerOfTwoBase_padsEveryOutput() throws Exception {
+		AnyBaseEncoder encoder = AnyBaseEncoder.builder().alphabet("0123456789abcdef").fixedWidth(true).build();
+
+		assertEquals("00000000000000ff", encoder.encode(255L));
+		StringBuilder sb = new StringBuilder();
+		encoder.encodeTo(255L, sb);
+		assertEquals("00000000000000ff", sb.toString());
+		byte[] bytes = new byte[16];
+		encoder.encodeTo(255L, bytes, 0);
+		assertEquals("00000000000000ff", new String(bytes, StandardCharsets.US_ASCII));
+		assertArrayEquals(new String[] { "0000000000000001" }, encoder.encodeAll(new long[] { 1L }));
+	}
+
+	@Test
+	void fixedWidth_decodeWithWrongWidth_throwsException() {
+		AnyBaseEncoder encoder = AnyBaseEncoder.builder().alphabet("0123456789").fixedWidth(true).build();
+		assertThrows(IllegalArgumentException.class, () -> encoder.decodeToLong("42"));
+	}
+
+	@Test
+	void fixedWidth_withUnsortedAlphabet_throwsException() {
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.builder().alphabet(AnyBaseEncoder.BASE_52.getAlphabet()).fixedWidth(true).build()
+		);
+	}
+
+	@Test
+	void encodeBigInteger_largeValues_matchRadixConversion() {
+		Random random = new Random(42);
+		AnyBaseEncoder[] encoders = { AnyBaseEncoder.BASE_10, AnyBaseEncoder.BASE_36 };
+		int[] bitLengths = { 63, 64, 65, 128, 256, 1000, 5000 };
+
+		for (AnyBaseEncoder encoder : encoders) {
+			for (int bits : bitLengths) {
+				BigInteger value = new BigInteger(bits, random).setBit(bits - 1);
+				String encoded = encoder.encode(value);
+				assertEquals(value.toString(encoder.getBase()), encoded, "base " + encoder.getBase() + ", bits " + bits);
+				assertEquals(value, encoder.decode(encoded));
+			}
+			// chunks with inner zero digits must stay padded
+			BigInteger sparse = BigInteger.TEN.pow(300).add(BigInteger.ONE);
+			assertEquals(sparse.toString(encoder.getBase()), encoder.encode(sparse));
+		}
+	}
+
+	@Test
+	void encodeBytes_matchesBigIntegerEncoding() {
+		Random random = new Random(7);
+		AnyBaseEncoder[] encoders = { AnyBaseEncoder.BASE_10, AnyBaseEncoder.BASE_16, AnyBaseEncoder.BASE_52 };
+
+		for (AnyBaseEncoder encoder : encoders) {
+			for (int length : new int[] { 1, 3, 8, 16, 33 }) {
+				byte[] bytes = new byte[length];
+				random.nextBytes(bytes);
+				assertEquals(encoder.encode(new BigInteger(1, bytes)), encoder.encode(bytes));
+			}
+			assertEquals(encoder.encode(0L), encoder.encode(new byte[0]));
+			assertEquals(encoder.encode(0L), encoder.encode(new byte[] { 0, 0, 0, 0, 0 }));
+			assertEquals(encoder.encode(1L), encoder.encode(new byte[] { 0, 0, 0, 0, 1 }));
+		}
+	}
+
+	@Test
+	void encodeUuid_matchesUnsignedValue() {
+		UUID uuid = UUID.fromString("f81d4fae-7dec-11d0-a765-00a0c91e6bf6");
+		BigInteger unsigned = new BigInteger(uuid.toString().replace("-", ""), 16);
+
+		assertEquals("f81d4fae7dec11d0a76500a0c91e6bf6", AnyBaseEncoder.BASE_16.encode(uuid));
+		assertEquals(AnyBaseEncoder.BASE_62.encode(unsigned), AnyBaseEncoder.BASE_62.encode(uuid));
+		assertEquals(unsigned, AnyBaseEncoder.BASE_62.decode(AnyBaseEncoder.BASE_62.encode(uuid)));
+	}
+
+	@Test
+	void digitPairs_matchSingleDigitEncoding() {
+		String[] alphabets = { "0123456789", "0123456789abcdef", "0123456789abcdefghijklmnopqrstuvwxyz", "abc" };
+		Random random = new Random(11);
+
+		for (String alphabet : alphabets) {
+			AnyBaseEncoder plain = AnyBaseEncoder.builder().alphabet(alphabet).build();
+			AnyBaseEncoder pairs = AnyBaseEncoder.builder().alphabet(alphabet).digitPairs(true).build();
+			for (int i = 0; i < 500; i++) {
+				long value = i < 100 ? i : random.nextLong() >>> (1 + random.nextInt(63));
+				String encoded = plain.encode(value);
+				assertEquals(encoded, pairs.encode(value));
+				assertEquals(value, pairs.decodeToLong(encoded));
+			}
+			assertEquals(plain.encode(Long.MAX_VALUE), pairs.encode(Long.MAX_VALUE));
+			assertEquals(Long.MAX_VALUE, pairs.decodeToLong(plain.encode(Long.MAX_VALUE)));
+		}
+	}
+
+	@Test
+	void digitPairs_reportInvalidCharacterAndOverflow() {
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeToLong("1234x6")
+		);
+		assertTrue(ex.getMessage().contains("at 4"), ex.getMessage());
+		assertThrows(ArithmeticException.class, () ->
+			AnyBaseEncoder.BASE_10.decodeToLong("9223372036854775808")
+		);
+		assertThrows(ArithmeticException.class, () ->
+			AnyBaseEncoder.BASE_36.decodeToLong("zzzzzzzzzzzzzzzzzzzz")
+		);
+	}
+
+	@Test
+	void digitPairs_withLargeBase_throwsException() {
+		String alphabet = AnyBaseEncoder.BASE_62.getAlphabet() + "-_~.";
+		assertThrows(IllegalArgumentException.class, () ->
+			AnyBaseEncoder.builder().alphabet(alphabet).digitPairs(true).build()
+		);
+	}
+
+	@Test
+	void tryDecodeToLong_returnsMinusOneInsteadOfThrowing() {
+		AnyBaseEncoder fixed = AnyBaseEncoder.builder().alphabet("0123456789").fixedWidth(true).build();
+
+		assertEquals(123L, AnyBaseEncoder.BASE_10.tryDecodeToLong("x123", 1, 4));
+		assertEquals(-1L, AnyBaseEncoder.BASE_10.tryDecodeToLong("x123", 1, 1));
+		assertEquals(-1L, AnyBaseEncoder.BASE_10.tryDecodeToLong("12a3", 0, 4));
+		assertEquals(-1L, AnyBaseEncoder.BASE_10.tryDecodeToLong("9223372036854775808", 0, 19));
+		assertEquals(Long.MAX_VALUE, AnyBaseEncoder.BASE_10.tryDecodeToLong("9223372036854775807", 0, 19));
+		assertEquals(-1L, AnyBaseEncoder.BASE_52.tryDecodeToLong("abc1", 0, 4));
+		assertEquals(-1L, fixed.tryDecodeToLong("42", 0, 2));
+	}
+
 	@Test
 	void encode_withNegativeValue_throwsException() {
 		assertThrows(IllegalArgumentException.class, () ->
@@ -0,0 +1,60 @@
+package com.inqwise.opinion.common;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BlocklistAutomaton}.
+ */
+class BlocklistAutomatonTest {
+
+	@Test
+	void matches_findsWordsAnywhereIncludingOverlaps() {
+		BlocklistAutomaton automaton = BlocklistAutomaton.compile(List.of("he", "she", "his", "hers"));
+
+		assertTrue(automaton.matches("ushers"));
+		assertTrue(automaton.matches("xxhisxx"));
+		assertTrue(automaton.matches("ahe"));
+		assertFalse(automaton.matches("hi"));
+		assertFalse(automaton.matches("sxh"));
+		assertFalse(automaton.matches(""));
+	}
+
+	@Test
+	void matches_suffixWordInsideLongerPath() {
+		// "bab" leads deep into the trie of "babe" while "ab" must still be found through the failure links
+		BlocklistAutomaton automaton = BlocklistAutomaton.compile(List.of("babe", "ab"));
+
+		assertTrue(automaton.matches("bab"));
+		assertFalse(automaton.matches("bba"));
+	}
+
+	@Test
+	void matches_isCaseInsensitiveAndIgnoresUnknownChars() {
+		BlocklistAutomaton automaton = BlocklistAutomaton.compile(List.of("Bad"));
+
+		assertTrue(automaton.matches("xBADx"));
+		assertTrue(automaton.matches("ba-bad"));
+		assertFalse(automaton.matches("ba_d"));
+		assertFalse(automaton.matches("bäd"));
+	}
+
+	@Test
+	void step_tracksStateAcrossCalls() {
+		BlocklistAutomaton automaton = BlocklistAutomaton.compile(List.of("kapa"));
+
+		int state = automaton.run("xkap");
+		assertFalse(automaton.isBlocked(state));
+		assertTrue(automaton.isBlocked(automaton.step(state, 'a')));
+		assertFalse(automaton.isBlocked(automaton.step(state, 'e')));
+	}
+
+	@Test
+	void compile_rejectsInvalidWords() {
+		assertThrows(IllegalArgumentException.class, () -> BlocklistAutomaton.compile(List.of("")));
+		assertThrows(IllegalArgumentException.class, () -> BlocklistAutomaton.compile(List.of("bäd")));
+	}
+}
@@ -0,0 +1,100 @@
+package com.inqwise.opinion.common;
+
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.inqwise.errors.ErrorCodes;
+import com.inqwise.errors.ErrorTicket;
+
+import io.vertx.ext.web.handler.HttpException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link NegativeUidCacheHandler}.
+ */
+class NegativeUidCacheHandlerTest {
+
+	private static final Uid SURVEY = Uid.builder().withId(42L).withPrefix("survey").build();
+
+	private final NegativeUidCache cache = NegativeUidCache.builder().build();
+	private final NegativeUidCacheHandler handler = new NegativeUidCacheHandler(cache, "surveyId");
+
+	@Test
+	void handle_unknownId_callsNext() {
+		var state = withSurvey(TestRoutingContextSupport.newContext());
+
+		handler.handle(state.context());
+
+		assertEquals(1, state.nextCalls);
+		assertNull(state.failedWith);
+	}
+
+	@Test
+	void handle_knownMissingId_failsWith404() {
+		cache.recordMissing(42L);
+		var state = withSurvey(TestRoutingContextSupport.newContext());
+
+		handler.handle(state.context());
+
+		assertEquals(0, state.nextCalls);
+		assertEquals(404, ((HttpException) state.failedWith).getStatusCode());
+	}
+
+	@Test
+	void failureHandler_recordsNotFoundErrorTicket() {
+		ErrorTicket ticket = ErrorTicket.builder().withError(ErrorCodes.NotFound).withStatusCode(404).build();
+		var state = withSurvey(TestRoutingContextSupport.contextWithFailure(new CompletionException(ticket)));
+
+		handler.failureHandler().handle(state.context());
+
+		assertEquals(1, state.nextCalls);
+		assertTrue(cache.isKnownMissing(42L));
+	}
+
+	@Test
+	void failureHandler_records404Status() {
+		var exception = withSurvey(TestRoutingContextSupport.contextWithFailure(new HttpException(404)));
+		handler.failureHandler().handle(exception.context());
+		assertTrue(cache.isKnownMissing(42L));
+
+		cache.invalidate(42L);
+		var status = withSurvey(TestRoutingContextSupport.newContext());
+		status.statusCode = 404;
+		handler.failureHandler().handle(status.context());
+		assertTrue(cache.isKnownMissing(42L));
+	}
+
+	@Test
+	void failureHandler_ignoresOtherFailures() {
+		var state = withSurvey(TestRoutingContextSupport.contextWithFailure(new IllegalStateException("boom")));
+		var forbidden = withSurvey(TestRoutingContextSupport.contextWithFailure(new HttpException(403)));
+
+		handler.failureHandler().handle(state.context());
+		handler.failureHandler().handle(forbidden.context());
+
+		assertFalse(cache.isKnownMissing(42L));
+		assertEquals(1, state.nextCalls);
+	}
+
+	@Test
+	void failureHandler_doesNotRefreshOwnFailures() {
+		cache.recordMissing(42L);
+		var state = withSurvey(TestRoutingContextSupport.newContext());
+		handler.handle(state.context());
+		cache.invalidate(42L);
+
+		var failed = withSurvey(TestRoutingContextSupport.contextWithFailure(state.failedWith));
+		handler.failureHandler().handle(failed.context());
+
+		assertFalse(cache.isKnownMissing(42L));
+	}
+
+	private static TestRoutingContextSupport.RoutingContextState withSurvey(TestRoutingContextSupport.RoutingContextState state) {
+		state.pathParams.put("surveyId", SURVEY.toUidToken());
+		UidParamHandler.builder().withPathParam("surveyId").build().handle(state.context());
+		state.nextCalls = 0;
+		return state;
+	}
+}
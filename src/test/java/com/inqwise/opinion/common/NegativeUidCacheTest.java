@@ -0,0 +1,84 @@
+package com.inqwise.opinion.common;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Ticker;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link NegativeUidCache}.
+ */
+class NegativeUidCacheTest {
+
+	@Test
+	void recordMissing_thenKnownMissing() {
+		NegativeUidCache cache = NegativeUidCache.builder().build();
+
+		assertFalse(cache.isKnownMissing(42L));
+		cache.recordMissing(42L);
+
+		assertTrue(cache.isKnownMissing(42L));
+		assertFalse(cache.isKnownMissing(43L));
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	void invalidate_forgetsId() {
+		NegativeUidCache cache = NegativeUidCache.builder().build();
+		cache.recordMissing(42L);
+		cache.recordMissing(43L);
+
+		cache.invalidate(42L);
+		assertFalse(cache.isKnownMissing(42L));
+		assertTrue(cache.isKnownMissing(43L));
+
+		cache.invalidateAll();
+		assertFalse(cache.isKnownMissing(43L));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void entries_expireAfterWrite() {
+		AtomicLong nanos = new AtomicLong();
+		Ticker ticker = new Ticker() {
+			@Override
+			public long read() {
+				return nanos.get();
+			}
+		};
+		NegativeUidCache cache = NegativeUidCache.builder()
+				.withExpireAfterWrite(Duration.ofSeconds(30))
+				.withTicker(ticker)
+				.build();
+		cache.recordMissing(42L);
+
+		nanos.addAndGet(TimeUnit.SECONDS.toNanos(29));
+		assertTrue(cache.isKnownMissing(42L));
+		nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+		assertFalse(cache.isKnownMissing(42L));
+	}
+
+	@Test
+	void size_isBoundedAndFilterRebuildKeepsLiveEntries() {
+		NegativeUidCache cache = NegativeUidCache.builder().withMaximumSize(100).build();
+
+		for (long id = 0; id < 1_000; id++) {
+			cache.recordMissing(id);
+			assertTrue(cache.isKnownMissing(id), "id " + id);
+		}
+
+		assertTrue(cache.size() <= 100);
+	}
+
+	@Test
+	void builder_rejectsInvalidSettings() {
+		assertThrows(IllegalArgumentException.class, () -> NegativeUidCache.builder().withMaximumSize(0));
+		assertThrows(IllegalArgumentException.class, () -> NegativeUidCache.builder().withExpireAfterWrite(Duration.ZERO));
+		assertThrows(IllegalArgumentException.class, () -> NegativeUidCache.builder().withFalsePositiveProbability(1));
+	}
+}
@@ -66,6 +66,36 @@ class OncePerRoutingContextHandlerTest {
 		assertEquals(Boolean.TRUE, context.get(seenKey));
 	}
 
+	@Test
+	void handle_namedHandlers_runSeparatelyAndReportSeen() {
+		AtomicInteger calls = new AtomicInteger();
+		AtomicInteger seen = new AtomicInteger();
+		class NamedHandler extends OncePerRoutingContextHandler {
+			NamedHandler(String name) {
+				super(name);
+			}
+
+			@Override
+			public void handleOnce(RoutingContext context) {
+				calls.incrementAndGet();
+			}
+
+			@Override
+			protected void handleSeen(RoutingContext context) {
+				seen.incrementAndGet();
+			}
+		}
+		RoutingContext context = newTestContext();
+
+		new NamedHandler("a").handle(context);
+		new NamedHandler("b").handle(context);
+		new NamedHandler("a").handle(context);
+
+		assertEquals(2, calls.get());
+		assertEquals(1, seen.get());
+		assertEquals(true, context.get("SEEN-NamedHandler-a"));
+	}
+
 	private static RoutingContext newTestContext() {
 		Map<String, Object> data = new HashMap<>();
 		return (RoutingContext) Proxy.newProxyInstance(
@@ -0,0 +1,45 @@
+package com.inqwise.opinion.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link OpinionStatusMessageCodec}.
+ */
+@ExtendWith(VertxExtension.class)
+class OpinionStatusMessageCodecTest {
+
+	@Test
+	void wire_roundTrips() {
+		var entityCodec = new OpinionStatusMessageCodec<>(OpinionEntityStatus.class);
+		var nonExistCodec = new OpinionStatusMessageCodec<>(NonExistStatus.class);
+
+		for (OpinionEntityStatus status : OpinionEntityStatus.values()) {
+			Buffer buffer = Buffer.buffer();
+			entityCodec.encodeToWire(buffer, status);
+			assertSame(status, entityCodec.decodeFromWire(0, buffer));
+		}
+		Buffer buffer = Buffer.buffer();
+		nonExistCodec.encodeToWire(buffer, new NonExistStatus(77));
+		assertEquals(new NonExistStatus(77), nonExistCodec.decodeFromWire(0, buffer));
+		assertNotEquals(entityCodec.name(), nonExistCodec.name());
+	}
+
+	@Test
+	void localDelivery_passesSameInstance(Vertx vertx, VertxTestContext testContext) {
+		OpinionStatusMessageCodec.register(vertx.eventBus());
+		NonExistStatus status = new NonExistStatus(77);
+
+		vertx.eventBus().<OpinionStatus>consumer("status.test", message -> testContext.verify(() -> {
+			assertSame(status, message.body());
+			testContext.completeNow();
+		})).completion().onComplete(testContext.succeeding(v -> vertx.eventBus().send("status.test", status)));
+	}
+}
@@ -2,6 +2,7 @@ package com.inqwise.opinion.common;
 
 import java.lang.reflect.Proxy;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import io.vertx.core.buffer.Buffer;
@@ -12,6 +13,10 @@ final class TestRoutingContextSupport {
 	private TestRoutingContextSupport() {
 	}
 
+	static RoutingContextState newContext() {
+		return contextWithFailure(null);
+	}
+
 	static RoutingContextState contextWithFailure(Throwable failure) {
 		var state = new RoutingContextState();
 		state.failure = failure;
@@ -34,6 +39,9 @@ final class TestRoutingContextSupport {
 					state.failedWith = (Throwable) args[0];
 					return null;
 				}
+				if ("statusCode".equals(name) && (args == null || args.length == 0)) {
+					return state.statusCode;
+				}
 				if ("next".equals(name)) {
 					state.nextCalls++;
 					return null;
@@ -51,6 +59,12 @@ final class TestRoutingContextSupport {
 					state.data.put((String) args[0], args[1]);
 					return proxy;
 				}
+				if ("pathParam".equals(name) && args != null && args.length == 1) {
+					return state.pathParams.get(args[0]);
+				}
+				if ("queryParam".equals(name) && args != null && args.length == 1) {
+					return state.queryParams.getOrDefault(args[0], List.of());
+				}
 				if ("data".equals(name) && (args == null || args.length == 0)) {
 					return state.data;
 				}
@@ -122,10 +136,13 @@ final class TestRoutingContextSupport {
 
 	static final class RoutingContextState {
 		final Map<String, Object> data = new HashMap<>();
+		final Map<String, String> pathParams = new HashMap<>();
+		final Map<String, List<String>> queryParams = new HashMap<>();
 		RoutingContext contextProxy;
 		HttpServerResponse responseProxy;
 		Throwable failure;
 		Throwable failedWith;
+		int statusCode = -1;
 		int nextCalls;
 		HttpResponseState response;
 
@@ -0,0 +1,137 @@
+package com.inqwise.opinion.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UidArray} and {@link UidPrefixDictionary}.
+ */
+class UidArrayTest {
+
+	@Test
+	void add_storesColumnsAndSharesPrefixCodes() {
+		UidArray array = new UidArray(0);
+		array.add(Uid.builder().withId(7L).withPrefix("acct").build());
+		array.add(3L, "user");
+		array.add(9L, "acct");
+
+		assertEquals(3, array.size());
+		assertEquals(2, array.getDictionary().size());
+		assertEquals(array.getPrefixCode(0), array.getPrefixCode(2));
+		assertEquals(3L, array.getId(1));
+		assertEquals("user", array.getPrefix(1));
+		assertEquals(Uid.builder().withId(9L).withPrefix("acct").build(), array.get(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> array.get(3));
+	}
+
+	@Test
+	void add_withoutIdOrPrefix_throws() {
+		UidArray array = new UidArray();
+
+		assertThrows(NullPointerException.class, () -> array.add(Uid.builder().withPrefix("acct").build()));
+		assertThrows(NullPointerException.class, () -> array.add(Uid.builder().withId(1L).build()));
+		assertTrue(array.isEmpty());
+	}
+
+	@Test
+	void iterator_returnsElementsInOrder() {
+		List<Uid> uids = new ArrayList<>();
+		for (long id = 0; id < 100; id++) {
+			uids.add(Uid.builder().withId(id * 31 % 17).withPrefix(id % 2 == 0 ? "even" : "odd").build());
+		}
+		UidArray array = new UidArray().addAll(uids);
+
+		List<Uid> iterated = new ArrayList<>();
+		array.forEach(iterated::add);
+
+		assertEquals(uids, iterated);
+	}
+
+	@Test
+	void sortById_sortsBothColumnsAndEnablesBinarySearch() {
+		SplittableRandom random = new SplittableRandom(11);
+		UidArray array = new UidArray();
+		for (int i = 0; i < 5_000; i++) {
+			long id = random.nextLong(1_000_000);
+			array.add(id, "p" + (id % 7));
+		}
+		assertFalse(array.isSortedById());
+		assertThrows(IllegalStateException.class, () -> array.indexOfId(1L));
+
+		long[] expected = array.toIdArray();
+		Arrays.sort(expected);
+		array.sortById();
+
+		assertArrayEquals(expected, array.toIdArray());
+		for (int i = 0; i < array.size(); i++) {
+			assertEquals("p" + (array.getId(i) % 7), array.getPrefix(i));
+		}
+		int index = array.indexOfId(expected[1234]);
+		assertEquals(expected[1234], array.getId(index));
+		assertTrue(array.indexOfId(-1L) < 0);
+	}
+
+	@Test
+	void add_inAscendingOrder_staysSorted() {
+		UidArray array = new UidArray();
+		for (long id = 0; id < 10; id++) {
+			array.add(id, "acct");
+		}
+
+		assertTrue(array.isSortedById());
+		assertEquals(5, array.indexOfId(5L));
+	}
+
+	@Test
+	void toUidTokens_matchesUidTokens() {
+		UidFormat format = UidFormat.builder().checkCharacter(true).permutationKey(5L).build();
+		UidArray array = new UidArray();
+		List<Uid> uids = new ArrayList<>();
+		for (long id = 0; id < 50; id++) {
+			Uid uid = Uid.builder().withId(id * 1_000_003L).withPrefix("kapev7moba").build();
+			uids.add(uid);
+			array.add(uid);
+		}
+
+		String[] tokens = array.toUidTokens();
+		String[] formatted = array.toUidTokens(format);
+		for (int i = 0; i < uids.size(); i++) {
+			assertEquals(uids.get(i).toUidToken(), tokens[i]);
+			assertEquals(uids.get(i).toUidToken(format), formatted[i]);
+		}
+		assertEquals(String.join(",", tokens), array.appendUidTokens(UidFormat.DEFAULT, new StringBuilder(), ',').toString());
+	}
+
+	@Test
+	void dictionary_sharedBetweenArrays() {
+		UidPrefixDictionary dictionary = new UidPrefixDictionary();
+		UidArray first = new UidArray(4, dictionary).add(1L, "acct");
+		UidArray second = new UidArray(4, dictionary).add(2L, "acct");
+
+		assertEquals(first.getPrefixCode(0), second.getPrefixCode(0));
+		assertEquals(0, dictionary.lookup("acct"));
+		assertEquals(-1, dictionary.lookup("user"));
+		assertEquals("acct", dictionary.prefixOf(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> dictionary.prefixOf(1));
+	}
+
+	@Test
+	void trimToSizeAndClear() {
+		UidArray array = new UidArray(100).add(2L, "acct").add(1L, "acct");
+		array.trimToSize();
+		assertEquals(2, array.size());
+		assertEquals(1L, array.getId(1));
+
+		array.clear();
+		assertTrue(array.isEmpty());
+		assertTrue(array.isSortedById());
+		array.add(5L, "acct");
+		assertEquals(5L, array.getId(0));
+	}
+}
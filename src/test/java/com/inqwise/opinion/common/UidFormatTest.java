@@ -0,0 +1,156 @@
+package com.inqwise.opinion.common;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UidFormat}.
+ */
+class UidFormatTest {
+
+	private static final UidFormat CHECKED = UidFormat.builder().checkCharacter(true).build();
+	private static final UidFormat STRICT = UidFormat.builder().checkCharacter(true).requireCheckCharacter(true).build();
+	private static final UidFormat PERMUTED = UidFormat.builder().permutationKey(0x5eed_cafe_f00d_beefL).build();
+
+	@Test
+	void format_withCheckCharacter_appendsDigit() {
+		Uid uid = Uid.builder().withId(123456789L).withPrefix("account").build();
+
+		String token = uid.toUidToken(CHECKED);
+
+		assertEquals(uid.toUidToken().length() + 1, token.length());
+		assertTrue(token.startsWith(uid.toUidToken()));
+		assertTrue(Character.isDigit(token.charAt(token.length() - 1)));
+	}
+
+	@Test
+	void parse_withCheckCharacter_roundTrips() {
+		for (long id : new long[] { 0L, 1L, 52L, 123456789L, Long.MAX_VALUE }) {
+			Uid uid = Uid.builder().withId(id).withPrefix("kapev7moba").build();
+			String token = uid.toUidToken(CHECKED);
+
+			assertEquals(uid, CHECKED.parse(token));
+			assertEquals(uid, STRICT.parse(token));
+			assertEquals(uid, UidFormat.DEFAULT.parse(token));
+			assertEquals(Optional.of(uid), STRICT.tryParse(token));
+		}
+	}
+
+	@Test
+	void parse_withLegacyToken_isAcceptedUnlessRequired() {
+		Uid uid = Uid.builder().withId(987654321L).withPrefix("user").build();
+		String legacy = uid.toUidToken();
+
+		assertEquals(uid, CHECKED.parse(legacy));
+		assertEquals(Optional.of(uid), CHECKED.tryParse(legacy));
+		assertThrows(IllegalArgumentException.class, () -> STRICT.parse(legacy));
+		assertEquals(Optional.empty(), STRICT.tryParse(legacy));
+	}
+
+	@Test
+	void parse_withWrongCheckCharacter_isRejected() {
+		Uid uid = Uid.builder().withId(987654321L).withPrefix("user").build();
+		String token = uid.toUidToken(CHECKED);
+		char check = token.charAt(token.length() - 1);
+		String wrongCheck = token.substring(0, token.length() - 1) + (char) ('0' + (check - '0' + 1) % 10);
+
+		assertThrows(IllegalArgumentException.class, () -> CHECKED.parse(wrongCheck));
+		assertEquals(Optional.empty(), CHECKED.tryParse(wrongCheck));
+	}
+
+	@Test
+	void parse_withSingleCharacterTypo_isMostlyRejected() {
+		Uid uid = Uid.builder().withId(1234567890123L).withPrefix("kapev7moba").build();
+		String token = uid.toUidToken(CHECKED);
+		String alphabet = AnyBaseEncoder.BASE_52.getAlphabet();
+
+		int typos = 0;
+		int accepted = 0;
+		for (int i = token.indexOf('-') + 1; i < token.length() - 1; i++) {
+			for (int j = 0; j < alphabet.length(); j++) {
+				if (alphabet.charAt(j) != token.charAt(i)) {
+					String typo = token.substring(0, i) + alphabet.charAt(j) + token.substring(i + 1);
+					typos++;
+					if (CHECKED.tryParse(typo).isPresent()) {
+						accepted++;
+					}
+				}
+			}
+		}
+
+		assertTrue(accepted * 5 < typos, accepted + " of " + typos + " typos accepted");
+	}
+
+	@Test
+	void toUidToken_withFormat_isCached() {
+		Uid uid = Uid.builder().withId(42L).withPrefix("memo").build();
+
+		assertSame(uid.toUidToken(CHECKED), uid.toUidToken(CHECKED));
+		assertSame(uid.toUidToken(), uid.toUidToken(UidFormat.DEFAULT));
+	}
+
+	@Test
+	void builder_requiringWithoutWriting_throwsException() {
+		assertThrows(IllegalArgumentException.class, () ->
+			UidFormat.builder().requireCheckCharacter(true).build()
+		);
+	}
+
+	@Test
+	void permutation_roundTripsAndStaysNonNegative() {
+		SplittableRandom random = new SplittableRandom(3);
+		for (int i = 0; i < 10_000; i++) {
+			long id = i < 1_000 ? i : random.nextLong(Long.MAX_VALUE);
+			long permuted = PERMUTED.permute(id);
+			assertTrue(permuted >= 0, "negative permutation of " + id);
+			assertEquals(id, PERMUTED.unpermute(permuted));
+		}
+		assertEquals(Long.MAX_VALUE, PERMUTED.unpermute(PERMUTED.permute(Long.MAX_VALUE)));
+	}
+
+	@Test
+	void permutation_hidesSequentialIds() {
+		Set<String> idParts = new HashSet<>();
+		String previous = null;
+		int ascending = 0;
+		for (long id = 1; id <= 100; id++) {
+			Uid uid = Uid.builder().withId(id).withPrefix("acct").build();
+			String token = uid.toUidToken(PERMUTED);
+			assertEquals(uid, PERMUTED.parse(token));
+			assertEquals(Optional.of(uid), PERMUTED.tryParse(token));
+			idParts.add(token);
+			if (previous != null && previous.compareTo(token) < 0) {
+				ascending++;
+			}
+			previous = token;
+		}
+
+		assertEquals(100, idParts.size());
+		assertTrue(ascending > 20 && ascending < 80, "tokens look sequential: " + ascending);
+		assertNotEquals(1L, UidFormat.DEFAULT.parse(Uid.builder().withId(1L).withPrefix("acct").build().toUidToken(PERMUTED)).getIdAsLong());
+	}
+
+	@Test
+	void permutation_dependsOnKey() {
+		UidFormat other = UidFormat.builder().permutationKey(1L).build();
+		Uid uid = Uid.builder().withId(42L).withPrefix("acct").build();
+
+		assertNotEquals(uid.toUidToken(PERMUTED), uid.toUidToken(other));
+		assertTrue(PERMUTED.isPermuted());
+		assertFalse(UidFormat.DEFAULT.isPermuted());
+	}
+
+	@Test
+	void permutation_withCheckCharacter_roundTrips() {
+		UidFormat format = UidFormat.builder().permutationKey(99L).checkCharacter(true).requireCheckCharacter(true).build();
+		Uid uid = Uid.builder().withId(123456L).withPrefix("acct").build();
+
+		assertEquals(uid, format.parse(uid.toUidToken(format)));
+	}
+}
@@ -0,0 +1,66 @@
+package com.inqwise.opinion.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UidMessageCodec}.
+ */
+@ExtendWith(VertxExtension.class)
+class UidMessageCodecTest {
+
+	@Test
+	void wire_roundTrips() {
+		Uid[] uids = {
+			Uid.builder().withId(0L).withPrefix("acct").build(),
+			Uid.builder().withId(123456789L).withPrefix("kapev7moba").build(),
+			Uid.builder().withId(Long.MAX_VALUE).withPrefix("über").build(),
+			Uid.builder().withId(-1L).withPrefix("").build(),
+			Uid.builder().withPrefix("acct").build(),
+			Uid.builder().withId(5L).build()
+		};
+		for (Uid uid : uids) {
+			Buffer buffer = Buffer.buffer().appendString("head");
+			UidMessageCodec.INSTANCE.encodeToWire(buffer, uid);
+
+			assertEquals(uid, UidMessageCodec.INSTANCE.decodeFromWire(4, buffer));
+		}
+	}
+
+	@Test
+	void wire_decodesPooledPrefix() {
+		Buffer buffer = Buffer.buffer();
+		UidMessageCodec.INSTANCE.encodeToWire(buffer, Uid.builder().withId(7L).withPrefix("kapev7moba").build());
+
+		Uid first = UidMessageCodec.INSTANCE.decodeFromWire(0, buffer);
+		Uid second = UidMessageCodec.INSTANCE.decodeFromWire(0, buffer);
+
+		assertSame(first.getPrefix(), second.getPrefix());
+	}
+
+	@Test
+	void wire_isCompact() {
+		Buffer buffer = Buffer.buffer();
+		UidMessageCodec.INSTANCE.encodeToWire(buffer, Uid.builder().withId(1000L).withPrefix("kapev7moba").build());
+
+		assertEquals(1 + 2 + 1 + 10, buffer.length());
+	}
+
+	@Test
+	void localDelivery_passesSameInstance(Vertx vertx, VertxTestContext testContext) {
+		UidMessageCodec.register(vertx.eventBus());
+		Uid uid = Uid.builder().withId(42L).withPrefix("acct").build();
+
+		vertx.eventBus().<Uid>consumer("uid.test", message -> testContext.verify(() -> {
+			assertSame(uid, message.body());
+			testContext.completeNow();
+		})).completion().onComplete(testContext.succeeding(v -> vertx.eventBus().send("uid.test", uid)));
+	}
+}
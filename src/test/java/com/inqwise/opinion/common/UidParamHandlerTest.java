@@ -0,0 +1,117 @@
+package com.inqwise.opinion.common;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.ext.web.handler.HttpException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UidParamHandler}.
+ */
+class UidParamHandlerTest {
+
+	private static final Uid SURVEY = Uid.builder().withId(42L).withPrefix("survey").build();
+	private static final Uid QUESTION = Uid.builder().withId(7L).withPrefix("question").build();
+
+	@Test
+	void handle_validParams_storesUidsAndCallsNext() {
+		UidParamHandler handler = UidParamHandler.builder().withPathParam("surveyId").withQueryParam("questionId").build();
+		var state = TestRoutingContextSupport.newContext();
+		state.pathParams.put("surveyId", SURVEY.toUidToken());
+		state.queryParams.put("questionId", List.of(QUESTION.toUidToken()));
+
+		handler.handle(state.context());
+
+		assertEquals(SURVEY, UidParamHandler.uid(state.context(), "surveyId"));
+		assertEquals(QUESTION, UidParamHandler.uid(state.context(), "questionId"));
+		assertEquals(1, state.nextCalls);
+		assertNull(state.failedWith);
+	}
+
+	@Test
+	void handle_malformedParam_failsWithCached400() {
+		UidParamHandler handler = UidParamHandler.builder().withPathParam("surveyId").build();
+		var first = TestRoutingContextSupport.newContext();
+		var second = TestRoutingContextSupport.newContext();
+		first.pathParams.put("surveyId", "not-a-uid!");
+		second.pathParams.put("surveyId", "nonsense");
+
+		handler.handle(first.context());
+		handler.handle(second.context());
+
+		HttpException failure = assertInstanceOf(HttpException.class, first.failedWith);
+		assertEquals(400, failure.getStatusCode());
+		assertSame(first.failedWith, second.failedWith);
+		assertEquals(0, first.nextCalls);
+		assertNull(UidParamHandler.uid(first.context(), "surveyId"));
+	}
+
+	@Test
+	void handle_missingParams() {
+		UidParamHandler handler = UidParamHandler.builder().withPathParam("surveyId").withOptionalQueryParam("questionId").build();
+		var optionalMissing = TestRoutingContextSupport.newContext();
+		optionalMissing.pathParams.put("surveyId", SURVEY.toUidToken());
+		var requiredMissing = TestRoutingContextSupport.newContext();
+
+		handler.handle(optionalMissing.context());
+		handler.handle(requiredMissing.context());
+
+		assertEquals(1, optionalMissing.nextCalls);
+		assertNull(UidParamHandler.uid(optionalMissing.context(), "questionId"));
+		assertEquals(400, ((HttpException) requiredMissing.failedWith).getStatusCode());
+		assertEquals(0, requiredMissing.nextCalls);
+	}
+
+	@Test
+	void handle_sameContextTwice_parsesOnceAndCallsNext() {
+		UidParamHandler handler = UidParamHandler.builder().withPathParam("surveyId").build();
+		var state = TestRoutingContextSupport.newContext();
+		state.pathParams.put("surveyId", SURVEY.toUidToken());
+
+		handler.handle(state.context());
+		Uid parsed = UidParamHandler.uid(state.context(), "surveyId");
+		handler.handle(state.context());
+
+		assertSame(parsed, UidParamHandler.uid(state.context(), "surveyId"));
+		assertEquals(2, state.nextCalls);
+	}
+
+	@Test
+	void handle_handlersForDifferentParams_bothRun() {
+		UidParamHandler survey = UidParamHandler.builder().withPathParam("surveyId").build();
+		UidParamHandler question = UidParamHandler.builder().withPathParam("questionId").build();
+		var state = TestRoutingContextSupport.newContext();
+		state.pathParams.put("surveyId", SURVEY.toUidToken());
+		state.pathParams.put("questionId", QUESTION.toUidToken());
+
+		survey.handle(state.context());
+		question.handle(state.context());
+
+		assertEquals(QUESTION, UidParamHandler.uid(state.context(), "questionId"));
+	}
+
+	@Test
+	void handle_withFormat_requiresCheckCharacter() {
+		UidFormat strict = UidFormat.builder().checkCharacter(true).requireCheckCharacter(true).build();
+		UidParamHandler handler = UidParamHandler.builder().withPathParam("surveyId").withFormat(strict).build();
+		var legacy = TestRoutingContextSupport.newContext();
+		legacy.pathParams.put("surveyId", SURVEY.toUidToken());
+		var checked = TestRoutingContextSupport.newContext();
+		checked.pathParams.put("surveyId", SURVEY.toUidToken(strict));
+
+		handler.handle(legacy.context());
+		handler.handle(checked.context());
+
+		assertNotNull(legacy.failedWith);
+		assertEquals(SURVEY, UidParamHandler.uid(checked.context(), "surveyId"));
+	}
+
+	@Test
+	void builder_rejectsEmptyAndDuplicateParams() {
+		assertThrows(IllegalStateException.class, () -> UidParamHandler.builder().build());
+		assertThrows(IllegalArgumentException.class, () -> UidParamHandler.builder().withPathParam("id").withQueryParam("id"));
+	}
+}
@@ -5,8 +5,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import io.vertx.junit5.VertxExtension;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -288,6 +299,151 @@ class UidPrefixGeneratorTest {
 		}
 	}
 
+	@Test
+	void randomSource_allStrategies_followPattern() throws Exception {
+		UidPrefixGenerator.RandomSource[] sources = {
+			UidPrefixGenerator.RandomSource.shared(),
+			UidPrefixGenerator.RandomSource.threadLocal(),
+			UidPrefixGenerator.RandomSource.threadLocalDrbg(3)
+		};
+		for (UidPrefixGenerator.RandomSource source : sources) {
+			UidPrefixGenerator generator = UidPrefixGenerator.builder().randomSource(source).build();
+			Set<String> prefixes = ConcurrentHashMap.newKeySet();
+			ExecutorService executor = Executors.newFixedThreadPool(4);
+			try {
+				List<Future<?>> futures = new ArrayList<>();
+				for (int t = 0; t < 4; t++) {
+					futures.add(executor.submit(() -> {
+						for (int i = 0; i < 50; i++) {
+							prefixes.add(generator.generate());
+						}
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+			assertTrue(prefixes.size() > 195, "Should generate highly unique prefixes");
+			for (String prefix : prefixes) {
+				assertEquals(10, prefix.length());
+				for (int i = 1; i < prefix.length(); i += 2) {
+					assertTrue(isVowel(prefix.charAt(i)), prefix);
+				}
+			}
+		}
+	}
+
+	@Test
+	void randomSource_custom_isUsed() {
+		SplittableRandom first = new SplittableRandom(7);
+		SplittableRandom second = new SplittableRandom(7);
+
+		String a = UidPrefixGenerator.builder().randomSource(() -> first).build().generate();
+		String b = UidPrefixGenerator.builder().randomSource(() -> second).build().generate();
+
+		assertEquals(a, b);
+	}
+
+	@Test
+	void randomSource_invalidArguments_throw() {
+		assertThrows(NullPointerException.class, () -> UidPrefixGenerator.builder().randomSource(null));
+		assertThrows(IllegalArgumentException.class, () -> UidPrefixGenerator.RandomSource.threadLocalDrbg(0));
+	}
+
+	@Test
+	void generate_matchesConsonantVowelDigitDistribution() {
+		SplittableRandom random = new SplittableRandom(17);
+		UidPrefixGenerator generator = UidPrefixGenerator.builder().randomSource(() -> random).build();
+		Map<Character, Integer> evenCounts = new HashMap<>();
+		Map<Character, Integer> oddCounts = new HashMap<>();
+		int samples = 100_000;
+		for (int i = 0; i < samples; i++) {
+			String prefix = generator.generate();
+			for (int p = 0; p < prefix.length(); p++) {
+				(p % 2 == 0 ? evenCounts : oddCounts).merge(prefix.charAt(p), 1, Integer::sum);
+			}
+		}
+		double evenTotal = samples * 5.0;
+
+		int digits = 0;
+		for (char digit : "23456789".toCharArray()) {
+			int count = evenCounts.getOrDefault(digit, 0);
+			digits += count;
+			assertEquals(1.0 / 40, count / evenTotal, 0.002, "digit " + digit);
+		}
+		assertEquals(0.2, digits / evenTotal, 0.005);
+		for (char consonant : "bcdfghjkmnpqrstvwxyz".toCharArray()) {
+			assertEquals(1.0 / 25, evenCounts.getOrDefault(consonant, 0) / evenTotal, 0.002, "consonant " + consonant);
+		}
+		for (char vowel : "aeiou".toCharArray()) {
+			assertEquals(0.2, oddCounts.getOrDefault(vowel, 0) / evenTotal, 0.005, "vowel " + vowel);
+		}
+	}
+
+	@Test
+	void generate_drawsAboutOneWordPerTenCharPrefix() {
+		SplittableRandom random = new SplittableRandom(5);
+		AtomicInteger draws = new AtomicInteger();
+		RandomGenerator counting = () -> {
+			draws.incrementAndGet();
+			return random.nextLong();
+		};
+		UidPrefixGenerator generator = UidPrefixGenerator.builder().preventFirstCharDigit(true).randomSource(() -> counting).build();
+
+		for (int i = 0; i < 10_000; i++) {
+			String prefix = generator.generate();
+			assertFalse(Character.isDigit(prefix.charAt(0)), prefix);
+		}
+
+		assertTrue(draws.get() < 10_500, "draws: " + draws.get());
+	}
+
+	@Test
+	void blocklist_blockedWordsNeverAppearAndAreRedrawn() {
+		List<String> words = List.of("ba", "ka", "p2", "mi");
+		SplittableRandom random = new SplittableRandom(23);
+		UidPrefixGenerator generator = UidPrefixGenerator.builder()
+				.blocklist(words)
+				.randomSource(() -> random)
+				.build();
+
+		for (int i = 0; i < 10_000; i++) {
+			String prefix = generator.generate();
+			assertEquals(10, prefix.length());
+			for (String word : words) {
+				assertFalse(prefix.contains(word), prefix);
+			}
+		}
+		assertTrue(generator.getRedrawCount() > 0);
+	}
+
+	@Test
+	void blocklist_invalidConfigurations_throw() {
+		// every vowel after "b" is blocked, so a "b" at an even position would have no continuation
+		List<String> allAfterB = List.of("ba", "be", "bi", "bo", "bu");
+		assertThrows(IllegalArgumentException.class, () -> UidPrefixGenerator.builder().blocklist(allAfterB).build());
+		assertThrows(IllegalArgumentException.class,
+			() -> UidPrefixGenerator.builder().startsWith("ac_").blocklist(List.of("c_")).build());
+		assertThrows(IllegalArgumentException.class, () -> UidPrefixGenerator.builder().blocklist(List.of("bäd")));
+	}
+
+	@Test
+	void blocklist_wordInsideStartsWith_throws() {
+		// "_" occurs in no blocked word, so the automaton is back at its start state after "bad_"
+		assertThrows(IllegalArgumentException.class,
+			() -> UidPrefixGenerator.builder().size(10).startsWith("bad_").blocklist(List.of("bad")).build());
+	}
+
+	@Test
+	void blocklist_empty_behavesAsNone() {
+		UidPrefixGenerator generator = UidPrefixGenerator.builder().blocklist(List.of()).build();
+
+		assertEquals(10, generator.generate().length());
+		assertEquals(0, generator.getRedrawCount());
+	}
+
 	private boolean isVowel(char c) {
 		return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
 	}
@@ -0,0 +1,90 @@
+package com.inqwise.opinion.common;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UidPrefixGuard} and the guarded {@link UidPrefixGenerator}.
+ */
+class UidPrefixGuardTest {
+
+	@Test
+	void claim_rejectsPrefixesIssuedInSameNamespace() {
+		UidPrefixGuard guard = new UidPrefixGuard();
+
+		assertTrue(guard.claim("ac_", "ac_tobi"));
+		assertFalse(guard.claim("ac_", "ac_tobi"));
+		assertTrue(guard.claim("", "ac_tobi"));
+		assertEquals(1, guard.size("ac_"));
+
+		guard.release("ac_", "ac_tobi");
+		assertFalse(guard.contains("ac_", "ac_tobi"));
+		assertTrue(guard.claim("ac_", "ac_tobi"));
+	}
+
+	@Test
+	void preload_countsNewPrefixes() {
+		UidPrefixGuard guard = new UidPrefixGuard();
+
+		assertEquals(2, guard.preload("", List.of("kapa", "tobi", "kapa")));
+		assertEquals(0, guard.preload("", List.of("tobi")));
+		assertTrue(guard.contains("", "kapa"));
+	}
+
+	@Test
+	void generate_withGuard_neverRepeatsUntilSpaceIsExhausted() {
+		UidPrefixGuard guard = new UidPrefixGuard(10_000);
+		UidPrefixGenerator generator = UidPrefixGenerator.builder()
+				.size(3)
+				.startsWith("x")
+				.uniquenessGuard(guard)
+				.build();
+		// "x" + vowel + even symbol: 5 * 28 prefixes
+		assertEquals(140, generator.getCapacity(), 1e-9);
+
+		Set<String> prefixes = new HashSet<>();
+		for (int i = 0; i < 140; i++) {
+			assertTrue(prefixes.add(generator.generate()));
+		}
+
+		assertEquals(140, generator.getIssuedCount());
+		assertEquals(0, generator.getRemainingCapacity(), 1e-9);
+		assertEquals(1.0, generator.getCollisionProbability(), 1e-9);
+		assertThrows(IllegalStateException.class, generator::generate);
+	}
+
+	@Test
+	void generate_withPreloadedGuard_skipsLoadedPrefixes() {
+		UidPrefixGuard guard = new UidPrefixGuard(1_000);
+		UidPrefixGenerator generator = UidPrefixGenerator.builder().size(3).startsWith("xa").uniquenessGuard(guard).build();
+		Set<String> all = new HashSet<>();
+		for (char c : "bcdfghjkmnpqrstvwxyz23456789".toCharArray()) {
+			all.add("xa" + c);
+		}
+		all.remove("xab");
+		guard.preload("xa", all);
+
+		assertEquals("xab", generator.generate());
+	}
+
+	@Test
+	void figures_reflectSymbolDistribution() {
+		UidPrefixGenerator generator = UidPrefixGenerator.SIZE_4;
+		double evenEffective = 1 / (8 * Math.pow(1.0 / 40, 2) + 20 * Math.pow(1.0 / 25, 2));
+
+		assertEquals(27.027, evenEffective, 1e-3);
+		assertEquals(28 * 5 * 28 * 5, generator.getCapacity(), 1e-9);
+		assertEquals(evenEffective * evenEffective * 25, generator.getEffectiveCapacity(), 1e-6);
+		assertEquals(1_000 / generator.getEffectiveCapacity(), generator.collisionProbability(1_000), 1e-12);
+		assertEquals(0, generator.getIssuedCount());
+		assertEquals(generator.getCapacity(), generator.getRemainingCapacity(), 1e-9);
+
+		UidPrefixGenerator noDigitFirst = UidPrefixGenerator.builder().size(4).preventFirstCharDigit(true).build();
+		assertEquals(20 * 5 * 28 * 5, noDigitFirst.getCapacity(), 1e-9);
+	}
+}
@@ -0,0 +1,124 @@
+package com.inqwise.opinion.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.buffer.Buffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link UidPrefixPool}.
+ */
+class UidPrefixPoolTest {
+
+	@Test
+	void intern_returnsSameInstanceOnHit() {
+		UidPrefixPool pool = new UidPrefixPool(16, 32);
+
+		String first = pool.intern("acct-abc", 0, 4);
+		String second = pool.intern(new StringBuilder("xacct-"), 1, 5);
+
+		assertEquals("acct", first);
+		assertSame(first, second);
+		assertEquals(1, pool.getHitCount());
+		assertEquals(1, pool.getMissCount());
+	}
+
+	@Test
+	void intern_longPrefix_isNotPooled() {
+		UidPrefixPool pool = new UidPrefixPool(16, 3);
+
+		String first = pool.intern("acct-abc", 0, 4);
+		String second = pool.intern("acct-abc", 0, 4);
+
+		assertEquals(first, second);
+		assertNotSame(first, second);
+		assertEquals(0, pool.getHitCount());
+		assertEquals(2, pool.getMissCount());
+	}
+
+	@Test
+	void intern_moreDistinctPrefixesThanSlots_staysCorrect() {
+		UidPrefixPool pool = new UidPrefixPool(4, 32);
+
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 100; i++) {
+				assertEquals("p" + i, pool.intern("p" + i + "-x", 0, ("p" + i).length()));
+			}
+		}
+		assertEquals(300, pool.getHitCount() + pool.getMissCount());
+	}
+
+	@Test
+	void intern_concurrentCallers_returnEqualPrefixes() throws Exception {
+		UidPrefixPool pool = new UidPrefixPool(8, 32);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				results.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						String prefix = "prefix" + (i % 20);
+						if (!prefix.equals(pool.intern(prefix + "-abc", 0, prefix.length()))) {
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void internAscii_sharesEntriesWithCharRanges() {
+		UidPrefixPool pool = new UidPrefixPool(16, 32);
+		Buffer buffer = Buffer.buffer("xacct-");
+
+		String first = pool.intern("acct-abc", 0, 4);
+		String second = pool.internAscii(buffer, 1, 5);
+
+		assertSame(first, second);
+		assertSame(second, pool.internAscii(buffer, 1, 5));
+		assertEquals(2, pool.getHitCount());
+	}
+
+	@Test
+	void internAscii_nonAsciiBytes_returnsNull() {
+		UidPrefixPool pool = new UidPrefixPool(16, 32);
+
+		assertNull(pool.internAscii(Buffer.buffer("über"), 0, 5));
+		assertEquals(0, pool.getHitCount() + pool.getMissCount());
+	}
+
+	@Test
+	void uidFormat_parse_internsPrefixes() {
+		UidPrefixPool pool = new UidPrefixPool(16, 32);
+		UidFormat format = UidFormat.builder().prefixPool(pool).build();
+		String token = Uid.builder().withId(42L).withPrefix("acct").build().toUidToken();
+
+		Uid first = format.parse(token);
+		Uid second = format.tryParse(token).orElseThrow();
+
+		assertSame(first.getPrefix(), second.getPrefix());
+		assertEquals(1, pool.getHitCount());
+	}
+
+	@Test
+	void uidFormat_withoutPool_allocatesPrefixes() {
+		UidFormat format = UidFormat.builder().prefixPool(null).build();
+		String token = Uid.builder().withId(42L).withPrefix("acct").build().toUidToken();
+
+		assertNotSame(format.parse(token).getPrefix(), format.parse(token).getPrefix());
+	}
+}
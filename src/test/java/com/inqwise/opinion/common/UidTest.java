@@ -1,5 +1,11 @@
 package com.inqwise.opinion.common;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
@@ -312,4 +318,127 @@ class UidTest {
 		assertEquals(2L, uid.getId());
 		assertEquals("b", uid.getPrefix());
 	}
+
+	@Test
+	void toUidToken_isComputedOnce() {
+		Uid uid = Uid.builder()
+			.withId(4242L)
+			.withPrefix("memo")
+			.build();
+
+		assertSame(uid.toUidToken(), uid.toUidToken());
+	}
+
+	@Test
+	void equalsAndHashCode_useIdAndPrefix() {
+		Uid uid = Uid.builder().withId(42L).withPrefix("eq").build();
+		Uid same = Uid.parse(uid.toUidToken());
+		Uid otherId = Uid.builder().withId(43L).withPrefix("eq").build();
+		Uid otherPrefix = Uid.builder().withId(42L).withPrefix("ne").build();
+		Uid noId = Uid.builder().withPrefix("eq").build();
+		Uid zeroId = Uid.builder().withId(0L).withPrefix("eq").build();
+
+		assertEquals(uid, same);
+		assertEquals(uid.hashCode(), same.hashCode());
+		assertNotEquals(uid, otherId);
+		assertNotEquals(uid, otherPrefix);
+		assertNotEquals(noId, zeroId);
+		assertEquals(Uid.builder().build(), Uid.builder().build());
+	}
+
+	@Test
+	void getIdAsLong_returnsPrimitiveOrThrowsWhenMissing() {
+		assertEquals(42L, Uid.builder().withId(42L).build().getIdAsLong());
+		assertTrue(Uid.builder().withId(0L).build().hasId());
+
+		Uid noId = Uid.builder().withId((Long) null).build();
+		assertFalse(noId.hasId());
+		assertThrows(NullPointerException.class, () -> noId.getIdAsLong());
+	}
+
+	@Test
+	void tryParse_withValidToken_returnsUid() {
+		Uid original = Uid.builder().withId(987654321L).withPrefix("user").build();
+
+		assertEquals(Optional.of(original), Uid.tryParse(original.toUidToken()));
+		assertEquals(Optional.of(original), Uid.tryParse(new StringBuilder(original.toUidToken())));
+	}
+
+	@Test
+	void tryParse_withMalformedToken_returnsEmpty() {
+		String tooLarge = "user-" + AnyBaseEncoder.BASE_52.encode(Long.MAX_VALUE) + "a";
+		String[] malformed = { null, "", "noseparator", "user-", "user-abc1", "user-ab-c", tooLarge };
+
+		for (String token : malformed) {
+			assertEquals(Optional.empty(), Uid.tryParse(token), "token: " + token);
+			if (null != token) {
+				assertThrows(Exception.class, () -> Uid.parse(token), "token: " + token);
+			}
+		}
+	}
+
+	@Test
+	void parseAll_collectsErrorPositions() {
+		List<String> tokens = List.of(
+			Uid.builder().withId(1L).withPrefix("acct").build().toUidToken(),
+			"no separator",
+			Uid.builder().withId(2L).withPrefix("user").build().toUidToken(),
+			"acct-!!"
+		);
+
+		UidParseResult result = Uid.parseAll(tokens);
+
+		assertEquals(4, result.getInputSize());
+		assertArrayEquals(new int[] { 1, 3 }, result.getErrorPositions());
+		assertTrue(result.isError(3));
+		assertFalse(result.isError(2));
+		assertEquals(2, result.getUids().size());
+		assertEquals(Uid.builder().withId(2L).withPrefix("user").build(), result.getUids().get(1));
+	}
+
+	@Test
+	void parseAll_largeBatchOnExecutor_matchesSequential() throws Exception {
+		List<CharSequence> tokens = new ArrayList<>();
+		List<Uid> uids = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			if (i % 997 == 0) {
+				tokens.add(new StringBuilder("bad"));
+				continue;
+			}
+			Uid uid = Uid.builder().withId(i * 7919L).withPrefix("p" + (i % 13)).build();
+			uids.add(uid);
+			tokens.add(uid.toUidToken());
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			UidParseResult parallel = Uid.parseAll(tokens, executor);
+			UidParseResult sequential = Uid.parseAll(tokens);
+
+			assertArrayEquals(sequential.getErrorPositions(), parallel.getErrorPositions());
+			assertEquals(21, parallel.getErrorCount());
+			List<Uid> parsed = new ArrayList<>();
+			parallel.getUids().forEach(parsed::add);
+			assertEquals(uids, parsed);
+
+			String[] expected = Uid.toUidTokens(uids);
+			assertArrayEquals(expected, Uid.toUidTokens(uids, executor));
+			assertArrayEquals(expected, parallel.getUids().toUidTokens(UidFormat.DEFAULT, executor));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void toUidTokens_onExecutor_propagatesFailure() {
+		List<Uid> uids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			uids.add(Uid.builder().withId(i < 9_000 ? Long.valueOf(i) : null).withPrefix("acct").build());
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			assertThrows(NullPointerException.class, () -> Uid.toUidTokens(uids, executor));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 }